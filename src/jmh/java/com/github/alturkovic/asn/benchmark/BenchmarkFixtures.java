@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.benchmark;
+
+import com.github.alturkovic.asn.encoder.BerEncoder;
+import com.github.alturkovic.asn.model.Address;
+import com.github.alturkovic.asn.model.Event;
+import com.github.alturkovic.asn.model.EventA;
+import com.github.alturkovic.asn.model.EventB;
+import com.github.alturkovic.asn.model.EventListWrapper;
+import com.github.alturkovic.asn.model.Person;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Scaled up versions of the test models shared by all benchmarks.
+ */
+final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {
+  }
+
+  static Person person(final int addressCount) {
+    final var phones = new HashSet<String>();
+    final var addresses = new ArrayList<Address>(addressCount);
+    for (var i = 0; i < addressCount; i++) {
+      addresses.add(new Address("Street " + i, i, i % 2 == 0));
+      if (i < 8) {
+        phones.add(String.format("3859980690%02d", i));
+      }
+    }
+
+    return Person.builder()
+        .male(true)
+        .age(42)
+        .shoeSize((short) 44)
+        .phones(phones)
+        .addresses(addresses)
+        .build();
+  }
+
+  static EventListWrapper eventList(final int eventCount) {
+    final List<Event> events = new ArrayList<>(eventCount);
+    for (var i = 0; i < eventCount; i++) {
+      events.add(i % 2 == 0 ? new EventA(i, i * 31) : new EventB(i % 3 == 0, i));
+    }
+    return new EventListWrapper(eventCount, events);
+  }
+
+  /**
+   * Concatenates {@code recordCount} encoded {@link Person} records, similar to a CDR file.
+   */
+  static byte[] personRecords(final int recordCount, final int addressCount) {
+    final var encoder = new BerEncoder();
+    final var output = new ByteArrayOutputStream();
+    for (var i = 0; i < recordCount; i++) {
+      encoder.encode(person(addressCount), output);
+    }
+    return output.toByteArray();
+  }
+}
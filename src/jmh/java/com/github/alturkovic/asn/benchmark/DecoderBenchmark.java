@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.benchmark;
+
+import com.github.alturkovic.asn.decoder.BerDecoder;
+import com.github.alturkovic.asn.encoder.BerEncoder;
+import com.github.alturkovic.asn.model.EventListWrapper;
+import com.github.alturkovic.asn.model.Person;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DecoderBenchmark {
+
+  @Param({"10", "1000"})
+  private int size;
+
+  private BerDecoder decoder;
+  private byte[] person;
+  private byte[] eventList;
+  private byte[] records;
+
+  @Setup
+  public void setUp() {
+    final var encoder = new BerEncoder();
+    decoder = new BerDecoder();
+    person = encoder.encode(BenchmarkFixtures.person(size));
+    eventList = encoder.encode(BenchmarkFixtures.eventList(size));
+    records = BenchmarkFixtures.personRecords(size, 10);
+  }
+
+  @Benchmark
+  public Person decodePerson() {
+    return decoder.decode(Person.class, person);
+  }
+
+  @Benchmark
+  public EventListWrapper decodeEventList() {
+    return decoder.decode(EventListWrapper.class, eventList);
+  }
+
+  @Benchmark
+  public void decodeRecordStream(final Blackhole blackhole) {
+    decoder.stream(Person.class, new ByteArrayInputStream(records)).forEach(blackhole::consume);
+  }
+
+  @Benchmark
+  public List<Person> decodeRecordsParallel() {
+    return decoder.decodeAll(Person.class, records);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.benchmark;
+
+import com.github.alturkovic.asn.encoder.BerEncoder;
+import com.github.alturkovic.asn.encoder.BerEncoderBuilder;
+import com.github.alturkovic.asn.model.EventListWrapper;
+import com.github.alturkovic.asn.model.Person;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EncoderBenchmark {
+
+  @Param({"10", "1000"})
+  private int size;
+
+  private BerEncoder encoder;
+  private BerEncoder parallelEncoder;
+  private Person person;
+  private EventListWrapper eventList;
+
+  @Setup
+  public void setUp() {
+    encoder = new BerEncoder();
+    parallelEncoder = new BerEncoderBuilder().parallelPool(ForkJoinPool.commonPool()).parallelThreshold(100).build();
+    person = BenchmarkFixtures.person(size);
+    eventList = BenchmarkFixtures.eventList(size);
+  }
+
+  @Benchmark
+  public byte[] encodePerson() {
+    return encoder.encode(person);
+  }
+
+  @Benchmark
+  public byte[] encodeEventList() {
+    return encoder.encode(eventList);
+  }
+
+  @Benchmark
+  public long encodePersonToStream() {
+    return encoder.encode(person, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public byte[] encodePersonParallel() {
+    return parallelEncoder.encode(person);
+  }
+}
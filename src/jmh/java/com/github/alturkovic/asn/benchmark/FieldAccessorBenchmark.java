@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.benchmark;
+
+import com.github.alturkovic.asn.decoder.BerDecoder;
+import com.github.alturkovic.asn.decoder.BerDecoderBuilder;
+import com.github.alturkovic.asn.encoder.BerEncoder;
+import com.github.alturkovic.asn.field.accessor.DirectFieldAccessor;
+import com.github.alturkovic.asn.field.accessor.FieldHandle;
+import com.github.alturkovic.asn.field.accessor.MethodHandleFieldAccessor;
+import com.github.alturkovic.asn.model.Address;
+import com.github.alturkovic.asn.model.Person;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reflective field access with {@link MethodHandleFieldAccessor} handles, both for single fields and for whole decodes.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FieldAccessorBenchmark {
+
+  private final DirectFieldAccessor directAccessor = new DirectFieldAccessor();
+  private final MethodHandleFieldAccessor methodHandleAccessor = new MethodHandleFieldAccessor();
+
+  private Address address;
+  private Field street;
+  private Field number;
+  private Field enabled;
+  private FieldHandle streetHandle;
+  private FieldHandle numberHandle;
+  private FieldHandle enabledHandle;
+
+  private BerDecoder directDecoder;
+  private BerDecoder methodHandleDecoder;
+  private byte[] person;
+
+  @Setup
+  public void setUp() throws Exception {
+    address = new Address("Street", 1, true);
+    street = Address.class.getDeclaredField("street");
+    number = Address.class.getDeclaredField("number");
+    enabled = Address.class.getDeclaredField("enabled");
+    streetHandle = methodHandleAccessor.handle(street);
+    numberHandle = methodHandleAccessor.handle(number);
+    enabledHandle = methodHandleAccessor.handle(enabled);
+
+    directDecoder = new BerDecoderBuilder().fieldAccessor(directAccessor).build();
+    methodHandleDecoder = new BerDecoderBuilder().fieldAccessor(methodHandleAccessor).build();
+    person = new BerEncoder().encode(BenchmarkFixtures.person(10));
+  }
+
+  @Benchmark
+  public Address setFieldsDirect() {
+    directAccessor.setFieldValue(address, street, "Other");
+    directAccessor.setFieldValue(address, number, 2);
+    directAccessor.setFieldValue(address, enabled, false);
+    return address;
+  }
+
+  @Benchmark
+  public Address setFieldsMethodHandle() {
+    streetHandle.set(address, "Other");
+    numberHandle.setInt(address, 2);
+    enabledHandle.setBoolean(address, false);
+    return address;
+  }
+
+  @Benchmark
+  public int getFieldsDirect() {
+    final String streetValue = directAccessor.getFieldValue(address, street);
+    final int numberValue = directAccessor.getFieldValue(address, number);
+    final boolean enabledValue = directAccessor.getFieldValue(address, enabled);
+    return streetValue.length() + numberValue + (enabledValue ? 1 : 0);
+  }
+
+  @Benchmark
+  public int getFieldsMethodHandle() {
+    final String streetValue = streetHandle.get(address);
+    return streetValue.length() + numberHandle.getInt(address) + (enabledHandle.getBoolean(address) ? 1 : 0);
+  }
+
+  @Benchmark
+  public Person decodeDirect() {
+    return directDecoder.decode(Person.class, person);
+  }
+
+  @Benchmark
+  public Person decodeMethodHandle() {
+    return methodHandleDecoder.decode(Person.class, person);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.benchmark;
+
+import com.github.alturkovic.asn.tag.Tag;
+import com.github.alturkovic.asn.tag.Type;
+import com.github.alturkovic.asn.tlv.BerDataExtractReader;
+import com.github.alturkovic.asn.tlv.BerDataReader;
+import com.github.alturkovic.asn.tlv.BerPathExtractor;
+import com.github.alturkovic.asn.tlv.BerSliceReader;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads every top level record of a multi-record input, without mapping it to a class.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TlvReaderBenchmark {
+
+  @Param({"10", "1000"})
+  private int records;
+
+  private byte[] data;
+  private BerDataReader dataReader;
+  private BerSliceReader sliceReader;
+  private BerDataExtractReader extractReader;
+  private BerPathExtractor pathExtractor;
+
+  @Setup
+  public void setUp() {
+    data = BenchmarkFixtures.personRecords(records, 10);
+    dataReader = new BerDataReader();
+    sliceReader = new BerSliceReader();
+    // Person -> addresses -> first address
+    final var firstAddress = List.of(
+        new Tag(16, Type.PRIVATE, true),
+        new Tag(1, Type.CONTEXT, true),
+        new Tag(2, Type.CONTEXT, true));
+    extractReader = new BerDataExtractReader(firstAddress);
+    // first address and shoe size
+    pathExtractor = new BerPathExtractor(List.of(firstAddress, List.of(new Tag(16, Type.PRIVATE, true), new Tag(3, Type.CONTEXT, false))));
+  }
+
+  @Benchmark
+  public void dataReader(final Blackhole blackhole) {
+    final var input = new ByteArrayInputStream(data);
+    while (input.available() > 0) {
+      blackhole.consume(dataReader.readNext(input));
+    }
+  }
+
+  @Benchmark
+  public void sliceReader(final Blackhole blackhole) {
+    var offset = 0;
+    while (offset < data.length) {
+      final var slice = sliceReader.readNext(data, offset, data.length);
+      blackhole.consume(slice);
+      offset = slice.getEnd();
+    }
+  }
+
+  @Benchmark
+  public void extractReader(final Blackhole blackhole) {
+    final var input = new ByteArrayInputStream(data);
+    while (input.available() > 0) {
+      blackhole.consume(extractReader.readNext(input));
+    }
+  }
+
+  @Benchmark
+  public void pathExtractor(final Blackhole blackhole) {
+    var offset = 0;
+    while (offset < data.length) {
+      final var record = sliceReader.readNext(data, offset, data.length);
+      blackhole.consume(pathExtractor.extract(record));
+      offset = record.getEnd();
+    }
+  }
+}
\ No newline at end of file
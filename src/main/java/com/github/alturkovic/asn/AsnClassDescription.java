@@ -37,10 +37,13 @@ import com.github.alturkovic.asn.field.PrimitiveTaggedField;
 import com.github.alturkovic.asn.field.StructureTaggedField;
 import com.github.alturkovic.asn.field.TaggedField;
 import com.github.alturkovic.asn.tag.Tag;
+import com.github.alturkovic.asn.util.BerUtils;
 import com.github.alturkovic.asn.util.ClassUtils;
+import com.github.alturkovic.asn.util.PackedTagIndex;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,35 +51,63 @@ import java.util.stream.Collectors;
 
 /**
  * The cached representation of a class. All annotated fields of a class will be analyzed and stored for further processing.
+ * Descriptions are fully initialized when constructed and never modified afterwards, so they can be safely shared between threads.
  */
 public class AsnClassDescription {
-  private Map<Tag, List<TaggedField>> multimap;
-  private List<TaggedField> classOrderedTaggedFields;
-  private Map<Tag, Class<?>> polymorphics;
+  private final List<TaggedField> classOrderedTaggedFields;
+  private final Map<Tag, Class<?>> polymorphics;
+  // every distinct tag has a slot, holding all fields with that tag in declaration order
+  private final List<List<TaggedField>> slots;
+  private final PackedTagIndex slotIndex;
+  // identifier octets of the class AsnStructure tag, null if the class cannot be encoded as a top-level record
+  private final byte[] encodedStructureTag;
 
   public AsnClassDescription(final Class<?> clazz) {
-    init(clazz);
-  }
+    final var multimap = analyzeFields(clazz);
+    polymorphics = clazz.isInterface() ? analyzePolymorphics(clazz) : null;
 
-  // ensures that the order of class defined fields will be kept when encoding
-  public List<TaggedField> getClassDeclaredOrderedTaggedFields() {
-    if (classOrderedTaggedFields == null) {
-      classOrderedTaggedFields = multimap.values()
-          .stream()
-          .flatMap(Collection::stream)
-          .sorted()
-          .collect(Collectors.toList());
+    final var asnStructure = clazz.getDeclaredAnnotation(AsnStructure.class);
+    encodedStructureTag = asnStructure == null ? null : BerUtils.convert(new Tag(asnStructure.value().value(), asnStructure.value().type(), true));
+
+    final var packedTags = new long[multimap.size()];
+    final var slotFields = new ArrayList<List<TaggedField>>(multimap.size());
+    for (final var entry : multimap.entrySet()) {
+      packedTags[slotFields.size()] = BerUtils.packTag(entry.getKey());
+      slotFields.add(List.copyOf(entry.getValue()));
     }
+    slots = Collections.unmodifiableList(slotFields);
+    slotIndex = new PackedTagIndex(packedTags);
+
+    // ensures that the order of class defined fields will be kept when encoding
+    classOrderedTaggedFields = multimap.values()
+        .stream()
+        .flatMap(Collection::stream)
+        .sorted()
+        .collect(Collectors.toUnmodifiableList());
+  }
 
+  public List<TaggedField> getClassDeclaredOrderedTaggedFields() {
     return classOrderedTaggedFields;
   }
 
   public TaggedField findByTag(final Tag tag, final int index) {
-    final List<TaggedField> taggedFields = multimap.get(tag);
-    if (taggedFields == null || taggedFields.isEmpty()) {
+    return findByTag(BerUtils.packTag(tag), index);
+  }
+
+  /**
+   * Find a field by its packed tag, see {@link BerUtils#packTag(Tag)}.
+   *
+   * @param packedTag packed tag of the field
+   * @param index     occurrence of the tag, starting at 0
+   * @return the field or null if there is no such field
+   */
+  public TaggedField findByTag(final long packedTag, final int index) {
+    final var slot = findSlot(packedTag);
+    if (slot < 0) {
       return null;
     }
 
+    final var taggedFields = slots.get(slot);
     if (index >= taggedFields.size()) {
       // this means that we need less data with this tag than there is available
       // if we need to get the second data, we also need to define the first with proper ordering
@@ -90,6 +121,37 @@ public class AsnClassDescription {
     return taggedFields.get(index);
   }
 
+  /**
+   * @param packedTag packed tag, see {@link BerUtils#packTag(Tag)}
+   * @return slot of the tag or -1 if no field has the tag
+   */
+  public int findSlot(final long packedTag) {
+    return slotIndex.indexOf(packedTag);
+  }
+
+  /**
+   * @return encoded tag of the class {@link AsnStructure} annotation or null if the class is not annotated
+   */
+  public byte[] getEncodedStructureTag() {
+    return encodedStructureTag;
+  }
+
+  public PackedTagIndex getSlotIndex() {
+    return slotIndex;
+  }
+
+  public int getSlotCount() {
+    return slots.size();
+  }
+
+  /**
+   * @param slot slot of a tag, see {@link #findSlot(long)}
+   * @return all fields with the tag of the slot, in declaration order
+   */
+  public List<TaggedField> getSlotFields(final int slot) {
+    return slots.get(slot);
+  }
+
   public Class<?> findImplementationByTag(final Tag tag) {
     if (polymorphics == null) {
       return null;
@@ -98,15 +160,20 @@ public class AsnClassDescription {
     return polymorphics.get(tag);
   }
 
-  private void init(final Class<?> clazz) {
-    multimap = new HashMap<>();
+  public Map<Tag, Class<?>> getPolymorphics() {
+    return polymorphics == null ? Map.of() : polymorphics;
+  }
 
-    if (clazz.isInterface()) {
-      polymorphics = new HashMap<>();
-      for (final var polymorphic : clazz.getDeclaredAnnotationsByType(AsnPolymorphic.class)) {
-        polymorphics.put(tag(polymorphic.value(), polymorphic.type(), ClassUtils.isPrimitiveOrWrapper(polymorphic.type())), polymorphic.type());
-      }
+  private Map<Tag, Class<?>> analyzePolymorphics(final Class<?> clazz) {
+    final var polymorphics = new HashMap<Tag, Class<?>>();
+    for (final var polymorphic : clazz.getDeclaredAnnotationsByType(AsnPolymorphic.class)) {
+      polymorphics.put(tag(polymorphic.value(), polymorphic.type(), ClassUtils.isPrimitiveOrWrapper(polymorphic.type())), polymorphic.type());
     }
+    return Collections.unmodifiableMap(polymorphics);
+  }
+
+  private Map<Tag, List<TaggedField>> analyzeFields(final Class<?> clazz) {
+    final var multimap = new HashMap<Tag, List<TaggedField>>();
 
     int fieldPosition = 0;
     for (final var field : clazz.getDeclaredFields()) {
@@ -126,6 +193,8 @@ public class AsnClassDescription {
 
       fieldPosition++;
     }
+
+    return multimap;
   }
 
   private TaggedField primitiveField(final int fieldPosition, final Field field) {
@@ -138,12 +207,13 @@ public class AsnClassDescription {
   private TaggedField structureField(final int fieldPosition, final Field field) {
     final var structureTag = field.getAnnotation(AsnStructure.class);
     final var asnTag = structureTag.value();
-    return new StructureTaggedField(fieldPosition, tag(asnTag, field.getType(), true), field);
+    final var type = ClassUtils.valueType(field);
+    return new StructureTaggedField(fieldPosition, tag(asnTag, type, true), field, type);
   }
 
   private TaggedField collectionField(final int fieldPosition, final Field field) {
     final var collectionTag = field.getAnnotation(AsnCollection.class);
-    final var tag = tag(collectionTag.value(), field.getType(), true);
+    final var tag = tag(collectionTag.value(), ClassUtils.valueType(field), true);
     final var elementTag = tag(collectionTag.elementTag(), collectionTag.type(), collectionTag.structured());
     final var converter = collectionTag.structured() ? null : converter(collectionTag.asnConverter(), collectionTag.type());
     return new CollectionTaggedField(fieldPosition, tag, field, collectionTag.structured(), collectionTag.type(), elementTag, converter);
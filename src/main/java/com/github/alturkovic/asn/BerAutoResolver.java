@@ -28,9 +28,13 @@ package com.github.alturkovic.asn;
 import com.github.alturkovic.asn.converter.AsciiStringConverter;
 import com.github.alturkovic.asn.converter.AsnConverter;
 import com.github.alturkovic.asn.converter.AutoConverter;
+import com.github.alturkovic.asn.converter.BooleanAsnConverter;
 import com.github.alturkovic.asn.converter.BooleanConverter;
+import com.github.alturkovic.asn.converter.IntAsnConverter;
 import com.github.alturkovic.asn.converter.IntegerConverter;
+import com.github.alturkovic.asn.converter.LongAsnConverter;
 import com.github.alturkovic.asn.converter.LongConverter;
+import com.github.alturkovic.asn.converter.ShortAsnConverter;
 import com.github.alturkovic.asn.converter.ShortConverter;
 import com.github.alturkovic.asn.converter.Utf8StringConverter;
 import com.github.alturkovic.asn.exception.AsnConfigurationException;
@@ -65,6 +69,20 @@ public class BerAutoResolver {
     throw new AsnConfigurationException("Cannot get a converter for: " + clazz.getName());
   }
 
+  /**
+   * Check if the converter can decode/encode values of the given type without boxing,
+   * i.e. the type is a primitive and the converter implements the matching primitive converter interface.
+   */
+  public static boolean isPrimitiveConverter(final AsnConverter<?, ?> converter, final Class<?> type) {
+    for (final var mapping : Mappings.values()) {
+      if (mapping.clazz == type && mapping.primitiveConverterInterface != null) {
+        return mapping.primitiveConverterInterface.isInstance(converter);
+      }
+    }
+
+    return false;
+  }
+
   public static Tag getUniversalTag(final Class<?> c, final boolean constructed) {
     if (c == null) {
       return null;
@@ -96,10 +114,10 @@ public class BerAutoResolver {
 
   @AllArgsConstructor
   private enum Mappings {
-    BOOLEAN(UniversalTags.BOOLEAN, boolean.class, BooleanConverter.class),
-    INTEGER(UniversalTags.INTEGER, int.class, IntegerConverter.class),
-    SHORT(UniversalTags.INTEGER, short.class, ShortConverter.class),
-    LONG(UniversalTags.INTEGER, long.class, LongConverter.class),
+    BOOLEAN(UniversalTags.BOOLEAN, boolean.class, BooleanConverter.class, BooleanAsnConverter.class),
+    INTEGER(UniversalTags.INTEGER, int.class, IntegerConverter.class, IntAsnConverter.class),
+    SHORT(UniversalTags.INTEGER, short.class, ShortConverter.class, ShortAsnConverter.class),
+    LONG(UniversalTags.INTEGER, long.class, LongConverter.class, LongAsnConverter.class),
     BIT_STRING(UniversalTags.BIT_STRING, null, null), // not configured
     OCTET_STRING(UniversalTags.OCTET_STRING, byte[].class, AutoConverter.class),
     ENUMERATED(UniversalTags.ENUMERATED, null, null), // not configured
@@ -123,5 +141,10 @@ public class BerAutoResolver {
     private final int value;
     private final Class<?> clazz;
     private final Class<? extends AsnConverter<?, ?>> converterClass;
+    private final Class<? extends AsnConverter<?, ?>> primitiveConverterInterface;
+
+    Mappings(final int value, final Class<?> clazz, final Class<? extends AsnConverter<?, ?>> converterClass) {
+      this(value, clazz, converterClass, null);
+    }
   }
 }
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn;
+
+import com.github.alturkovic.asn.tlv.BerSlice;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A structure or collection field value which is decoded on first access.
+ * <p>
+ * Declare an {@code @AsnStructure} or {@code @AsnCollection} field as {@code Lazy<T>} to keep the nested data undecoded until {@link #get()} is called.
+ * Until then, only a view of the encoded TLV is kept, which is written back as is when the owning object is encoded.
+ * The view references the decoded buffer, so the buffer must not be modified while the value is undecoded.
+ *
+ * @param <T> type of the value
+ */
+public final class Lazy<T> {
+  private final BerSlice data;
+  private Function<BerSlice, T> decoder;
+  private volatile boolean decoded;
+  private T value;
+
+  private Lazy(final BerSlice data, final Function<BerSlice, T> decoder, final T value, final boolean decoded) {
+    this.data = data;
+    this.decoder = decoder;
+    this.value = value;
+    this.decoded = decoded;
+  }
+
+  /**
+   * Wrap an already available value, i.e. to encode it.
+   *
+   * @param value value, can be null
+   * @param <T>   type of the value
+   * @return decoded lazy value
+   */
+  public static <T> Lazy<T> of(final T value) {
+    return new Lazy<>(null, null, value, true);
+  }
+
+  /**
+   * Defer decoding of the encoded TLV until the value is first accessed.
+   *
+   * @param data    encoded TLV
+   * @param decoder decodes the TLV, called at most once
+   * @param <T>     type of the value
+   * @return undecoded lazy value
+   */
+  public static <T> Lazy<T> undecoded(final BerSlice data, final Function<BerSlice, T> decoder) {
+    return new Lazy<>(Objects.requireNonNull(data), Objects.requireNonNull(decoder), null, false);
+  }
+
+  /**
+   * Get the value, decoding it if this is the first access.
+   *
+   * @return decoded value
+   */
+  public T get() {
+    if (!decoded) {
+      synchronized (this) {
+        if (!decoded) {
+          value = decoder.apply(data);
+          decoder = null;
+          decoded = true;
+        }
+      }
+    }
+    return value;
+  }
+
+  public boolean isDecoded() {
+    return decoded;
+  }
+
+  /**
+   * @return encoded TLV this value was decoded from, or null if it was created from a value
+   */
+  public BerSlice getData() {
+    return data;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (!(o instanceof Lazy)) {
+      return false;
+    }
+
+    return Objects.equals(get(), ((Lazy<?>) o).get());
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(get());
+  }
+
+  @Override
+  public String toString() {
+    if (!decoded) {
+      return String.format("Lazy(undecoded %d bytes)", data.getTotalLength());
+    }
+
+    return "Lazy(" + value + ")";
+  }
+}
@@ -27,15 +27,11 @@ package com.github.alturkovic.asn.converter;
 
 import java.nio.charset.StandardCharsets;
 
-public class AsciiStringConverter implements AsnConverter<byte[], String> {
+public class AsciiStringConverter implements BufferAsnConverter<String> {
 
   @Override
-  public String decode(final byte[] data) {
-    if (data == null) {
-      return null;
-    }
-
-    return new String(data, StandardCharsets.US_ASCII);
+  public String decode(final byte[] buffer, final int offset, final int length) {
+    return new String(buffer, offset, length, StandardCharsets.US_ASCII);
   }
 
   @Override
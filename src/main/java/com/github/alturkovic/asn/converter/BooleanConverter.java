@@ -28,35 +28,32 @@ package com.github.alturkovic.asn.converter;
 import com.github.alturkovic.asn.exception.AsnConvertException;
 import com.github.alturkovic.asn.util.HexUtils;
 
-public class BooleanConverter implements AsnConverter<byte[], Boolean> {
+public class BooleanConverter implements BooleanAsnConverter {
 
   @Override
-  public Boolean decode(final byte[] data) {
-    if (data == null) {
-      return null;
-    }
+  public boolean decodeBoolean(final byte[] data) {
+    return decodeBoolean(data, 0, data.length);
+  }
 
-    if (data.length != 1) {
-      throw new AsnConvertException("Data has multiple bytes: " + HexUtils.encode(data));
+  @Override
+  public boolean decodeBoolean(final byte[] buffer, final int offset, final int length) {
+    if (length != 1) {
+      throw new AsnConvertException("Data has multiple bytes: " + HexUtils.encode(buffer, offset, length));
     }
 
-    if (data[0] == 0) {
+    if (buffer[offset] == 0) {
       return false;
     }
 
-    if (data[0] == -1) {
+    if (buffer[offset] == -1) {
       return true;
     }
 
-    throw new AsnConvertException(String.format("%s doesn't represent boolean", HexUtils.encode(data)));
+    throw new AsnConvertException(String.format("%s doesn't represent boolean", HexUtils.encode(buffer, offset, length)));
   }
 
   @Override
-  public byte[] encode(final Boolean data) {
-    if (data == null) {
-      return null;
-    }
-
+  public byte[] encodeBoolean(final boolean data) {
     return new byte[]{(byte) (data ? -1 : 0)};
   }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.converter;
+
+/**
+ * An {@link AsnConverter} which decodes the value directly from the buffer it was read into,
+ * so the value does not have to be copied into its own array first.
+ *
+ * @param <D> decoding type
+ */
+public interface BufferAsnConverter<D> extends AsnConverter<byte[], D> {
+  /**
+   * Decode raw Asn data from a part of the buffer. The buffer must not be modified or retained.
+   *
+   * @param buffer buffer holding the value
+   * @param offset offset of the first value byte
+   * @param length number of value bytes
+   * @return decoded data
+   */
+  D decode(byte[] buffer, int offset, int length);
+
+  @Override
+  default D decode(final byte[] data) {
+    if (data == null) {
+      return null;
+    }
+
+    return decode(data, 0, data.length);
+  }
+}
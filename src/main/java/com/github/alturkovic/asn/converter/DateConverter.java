@@ -27,17 +27,13 @@ package com.github.alturkovic.asn.converter;
 
 import java.util.Date;
 
-public class DateConverter implements AsnConverter<byte[], Date> {
+public class DateConverter implements BufferAsnConverter<Date> {
 
   private final LongConverter longConverter = new LongConverter();
 
   @Override
-  public Date decode(final byte[] data) {
-    if (data == null) {
-      return null;
-    }
-
-    return new Date(longConverter.decode(data));
+  public Date decode(final byte[] buffer, final int offset, final int length) {
+    return new Date(longConverter.decodeLong(buffer, offset, length));
   }
 
   @Override
@@ -28,15 +28,11 @@ package com.github.alturkovic.asn.converter;
 import com.github.alturkovic.asn.exception.AsnConvertException;
 import com.github.alturkovic.asn.util.HexUtils;
 
-public class HexStringConverter implements AsnConverter<byte[], String> {
+public class HexStringConverter implements BufferAsnConverter<String> {
 
   @Override
-  public String decode(final byte[] data) {
-    if (data == null) {
-      return null;
-    }
-
-    return HexUtils.encode(data);
+  public String decode(final byte[] buffer, final int offset, final int length) {
+    return HexUtils.encode(buffer, offset, length);
   }
 
   @Override
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.converter;
+
+import java.util.Arrays;
+
+/**
+ * An {@link AsnConverter} for {@code int} values which can be used without boxing.
+ * The boxed variants handle {@code null} values and delegate to the primitive ones.
+ */
+public interface IntAsnConverter extends BufferAsnConverter<Integer> {
+  /**
+   * Decode raw Asn data.
+   *
+   * @param data data to decode, never null
+   * @return decoded data
+   */
+  int decodeInt(byte[] data);
+
+  /**
+   * Decode raw Asn data from a part of the buffer, without copying it when the implementation supports it.
+   *
+   * @param buffer buffer holding the value
+   * @param offset offset of the first value byte
+   * @param length number of value bytes
+   * @return decoded data
+   */
+  default int decodeInt(final byte[] buffer, final int offset, final int length) {
+    return decodeInt(Arrays.copyOfRange(buffer, offset, offset + length));
+  }
+
+  /**
+   * Encode to raw Asn data.
+   *
+   * @param data data to encode
+   * @return encoded data
+   */
+  byte[] encodeInt(int data);
+
+  @Override
+  default Integer decode(final byte[] buffer, final int offset, final int length) {
+    return decodeInt(buffer, offset, length);
+  }
+
+  @Override
+  default Integer decode(final byte[] data) {
+    if (data == null) {
+      return null;
+    }
+
+    return decodeInt(data);
+  }
+
+  @Override
+  default byte[] encode(final Integer data) {
+    if (data == null) {
+      return null;
+    }
+
+    return encodeInt(data);
+  }
+}
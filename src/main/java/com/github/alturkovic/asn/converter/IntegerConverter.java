@@ -27,29 +27,26 @@ package com.github.alturkovic.asn.converter;
 
 import com.github.alturkovic.asn.exception.AsnConvertException;
 import com.github.alturkovic.asn.util.HexUtils;
-import java.math.BigInteger;
+import com.github.alturkovic.asn.util.IntegerUtils;
 
-public class IntegerConverter implements AsnConverter<byte[], Integer> {
+public class IntegerConverter implements IntAsnConverter {
 
   @Override
-  public Integer decode(final byte[] data) {
-    if (data == null) {
-      return null;
-    }
+  public int decodeInt(final byte[] data) {
+    return decodeInt(data, 0, data.length);
+  }
 
+  @Override
+  public int decodeInt(final byte[] buffer, final int offset, final int length) {
     try {
-      return new BigInteger(data).intValueExact();
-    } catch (final ArithmeticException | NumberFormatException e) {
-      throw new AsnConvertException(String.format("Cannot convert %s to integer", HexUtils.encode(data)), e);
+      return IntegerUtils.parseInt(buffer, offset, length);
+    } catch (final ArithmeticException e) {
+      throw new AsnConvertException(String.format("Cannot convert %s to integer", HexUtils.encode(buffer, offset, length)), e);
     }
   }
 
   @Override
-  public byte[] encode(final Integer data) {
-    if (data == null) {
-      return null;
-    }
-
-    return BigInteger.valueOf(data).toByteArray();
+  public byte[] encodeInt(final int data) {
+    return IntegerUtils.encode(data);
   }
 }
\ No newline at end of file
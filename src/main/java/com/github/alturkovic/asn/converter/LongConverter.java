@@ -27,29 +27,26 @@ package com.github.alturkovic.asn.converter;
 
 import com.github.alturkovic.asn.exception.AsnConvertException;
 import com.github.alturkovic.asn.util.HexUtils;
-import java.math.BigInteger;
+import com.github.alturkovic.asn.util.IntegerUtils;
 
-public class LongConverter implements AsnConverter<byte[], Long> {
+public class LongConverter implements LongAsnConverter {
 
   @Override
-  public Long decode(final byte[] data) {
-    if (data == null) {
-      return null;
-    }
+  public long decodeLong(final byte[] data) {
+    return decodeLong(data, 0, data.length);
+  }
 
+  @Override
+  public long decodeLong(final byte[] buffer, final int offset, final int length) {
     try {
-      return new BigInteger(data).longValueExact();
-    } catch (final ArithmeticException | NumberFormatException e) {
-      throw new AsnConvertException(String.format("Cannot convert %s to long", HexUtils.encode(data)), e);
+      return IntegerUtils.parseLong(buffer, offset, length);
+    } catch (final ArithmeticException e) {
+      throw new AsnConvertException(String.format("Cannot convert %s to long", HexUtils.encode(buffer, offset, length)), e);
     }
   }
 
   @Override
-  public byte[] encode(final Long data) {
-    if (data == null) {
-      return null;
-    }
-
-    return BigInteger.valueOf(data).toByteArray();
+  public byte[] encodeLong(final long data) {
+    return IntegerUtils.encode(data);
   }
 }
\ No newline at end of file
@@ -27,29 +27,26 @@ package com.github.alturkovic.asn.converter;
 
 import com.github.alturkovic.asn.exception.AsnConvertException;
 import com.github.alturkovic.asn.util.HexUtils;
-import java.math.BigInteger;
+import com.github.alturkovic.asn.util.IntegerUtils;
 
-public class ShortConverter implements AsnConverter<byte[], Short> {
+public class ShortConverter implements ShortAsnConverter {
 
   @Override
-  public Short decode(final byte[] data) {
-    if (data == null) {
-      return null;
-    }
+  public short decodeShort(final byte[] data) {
+    return decodeShort(data, 0, data.length);
+  }
 
+  @Override
+  public short decodeShort(final byte[] buffer, final int offset, final int length) {
     try {
-      return new BigInteger(data).shortValueExact();
-    } catch (final ArithmeticException | NumberFormatException e) {
-      throw new AsnConvertException(String.format("Cannot convert %s to short", HexUtils.encode(data)), e);
+      return IntegerUtils.parseShort(buffer, offset, length);
+    } catch (final ArithmeticException e) {
+      throw new AsnConvertException(String.format("Cannot convert %s to short", HexUtils.encode(buffer, offset, length)), e);
     }
   }
 
   @Override
-  public byte[] encode(final Short data) {
-    if (data == null) {
-      return null;
-    }
-
-    return BigInteger.valueOf(data).toByteArray();
+  public byte[] encodeShort(final short data) {
+    return IntegerUtils.encode(data);
   }
 }
\ No newline at end of file
@@ -27,15 +27,11 @@ package com.github.alturkovic.asn.converter;
 
 import java.nio.charset.StandardCharsets;
 
-public class Utf8StringConverter implements AsnConverter<byte[], String> {
+public class Utf8StringConverter implements BufferAsnConverter<String> {
 
   @Override
-  public String decode(final byte[] data) {
-    if (data == null) {
-      return null;
-    }
-
-    return new String(data, StandardCharsets.UTF_8);
+  public String decode(final byte[] buffer, final int offset, final int length) {
+    return new String(buffer, offset, length, StandardCharsets.UTF_8);
   }
 
   @Override
@@ -0,0 +1,294 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.decoder;
+
+import com.github.alturkovic.asn.AsnClassDescription;
+import com.github.alturkovic.asn.BerAutoResolver;
+import com.github.alturkovic.asn.annotation.AsnPostProcessMethod;
+import com.github.alturkovic.asn.converter.AsnConverter;
+import com.github.alturkovic.asn.converter.BufferAsnConverter;
+import com.github.alturkovic.asn.exception.AsnConfigurationException;
+import com.github.alturkovic.asn.exception.AsnDecodeException;
+import com.github.alturkovic.asn.field.CollectionTaggedField;
+import com.github.alturkovic.asn.field.PrimitiveTaggedField;
+import com.github.alturkovic.asn.field.StructureTaggedField;
+import com.github.alturkovic.asn.field.TaggedField;
+import com.github.alturkovic.asn.field.accessor.FieldAccessor;
+import com.github.alturkovic.asn.field.accessor.FieldHandle;
+import com.github.alturkovic.asn.tag.Tag;
+import com.github.alturkovic.asn.util.BerUtils;
+import com.github.alturkovic.asn.util.ClassUtils;
+import com.github.alturkovic.asn.util.PackedTagIndex;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Precompiled decoding instructions for a single class.
+ * Everything that does not depend on the decoded data (constructor, converter instances, collection factories, post process method)
+ * is resolved once when the plan is compiled, leaving only a tag to slot lookup for every decoded element.
+ */
+@Getter
+class BerDecodePlan {
+  private final Class<?> type;
+  private final Constructor<?> constructor;
+  private final Method postProcessMethod;
+  // slot numbers of the class description, every slot holds the fields with the same tag in the order in which they are expected to appear
+  private final PackedTagIndex slotIndex;
+  private final FieldPlan[][] slots;
+  private final PackedTagIndex implementationIndex;
+  private final FieldPlan[] implementations;
+
+  private BerDecodePlan(final Class<?> type, final Constructor<?> constructor, final Method postProcessMethod,
+                        final PackedTagIndex slotIndex, final FieldPlan[][] slots, final PackedTagIndex implementationIndex, final FieldPlan[] implementations) {
+    this.type = type;
+    this.constructor = constructor;
+    this.postProcessMethod = postProcessMethod;
+    this.slotIndex = slotIndex;
+    this.slots = slots;
+    this.implementationIndex = implementationIndex;
+    this.implementations = implementations;
+  }
+
+  static BerDecodePlan compile(final Class<?> type, final AsnClassDescription asnClassDescription, final FieldAccessor fieldAccessor,
+                               final Function<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterLoader) {
+    if (type.isInterface()) {
+      final var polymorphics = asnClassDescription.getPolymorphics();
+      final var packedTags = new long[polymorphics.size()];
+      final var implementations = new FieldPlan[polymorphics.size()];
+      var i = 0;
+      for (final var entry : polymorphics.entrySet()) {
+        packedTags[i] = BerUtils.packTag(entry.getKey());
+        implementations[i++] = implementationPlan(entry.getValue(), entry.getKey(), converterLoader);
+      }
+
+      return new BerDecodePlan(type, null, null, null, new FieldPlan[0][], new PackedTagIndex(packedTags), implementations);
+    }
+
+    final var slots = new FieldPlan[asnClassDescription.getSlotCount()][];
+    for (var slot = 0; slot < slots.length; slot++) {
+      final var taggedFields = asnClassDescription.getSlotFields(slot);
+      slots[slot] = new FieldPlan[taggedFields.size()];
+      for (var i = 0; i < taggedFields.size(); i++) {
+        slots[slot][i] = fieldPlan(taggedFields.get(i), fieldAccessor, converterLoader);
+      }
+    }
+
+    return new BerDecodePlan(type, constructor(type), postProcessMethod(type), asnClassDescription.getSlotIndex(), slots, null, null);
+  }
+
+  int getSlotCount() {
+    return slots.length;
+  }
+
+  /**
+   * Finds the field that should be decoded from the next element with the given tag.
+   *
+   * @param packedTag   packed tag of the element
+   * @param occurrences counters of already decoded elements, updated by this call
+   * @param base        base index of this structure counters
+   * @return field to decode or null if the element is not mapped
+   */
+  FieldPlan findField(final long packedTag, final OccurrenceStack occurrences, final int base) {
+    final var slot = slotIndex.indexOf(packedTag);
+    if (slot < 0) {
+      return null;
+    }
+
+    // surplus elements with the same tag are discarded, see AsnClassDescription.findByTag
+    final var index = occurrences.next(base, slot);
+    final var fields = slots[slot];
+    return index < fields.length ? fields[index] : null;
+  }
+
+  FieldPlan findImplementation(final long packedTag) {
+    if (implementationIndex == null) {
+      return null;
+    }
+
+    final var index = implementationIndex.indexOf(packedTag);
+    return index < 0 ? null : implementations[index];
+  }
+
+  private static FieldPlan implementationPlan(final Class<?> implementation, final Tag tag,
+                                              final Function<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterLoader) {
+    if (ClassUtils.isPrimitiveOrWrapper(implementation)) {
+      //noinspection unchecked
+      final var converterClass = (Class<? extends AsnConverter<byte[], Object>>) BerAutoResolver.getUniversalConverterClass(implementation);
+      return new FieldPlan(Kind.PRIMITIVE, null, null, implementation, tag, false, converterLoader.apply(converterClass), null);
+    }
+
+    return new FieldPlan(Kind.STRUCTURE, null, null, implementation, tag, true, null, null);
+  }
+
+  private static FieldPlan fieldPlan(final TaggedField taggedField, final FieldAccessor fieldAccessor,
+                                     final Function<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterLoader) {
+    final var field = taggedField.getField();
+    final var handle = fieldAccessor.handle(field);
+
+    if (taggedField.isPrimitive()) {
+      //noinspection unchecked
+      final var converterClass = (Class<? extends AsnConverter<byte[], Object>>) ((PrimitiveTaggedField) taggedField).getConverter();
+      final var converter = converterLoader.apply(converterClass);
+      return new FieldPlan(primitiveKind(converter, field.getType()), field, handle, field.getType(), taggedField.getTag(), false, converter, null);
+    }
+
+    if (taggedField.isStructure()) {
+      final var kind = taggedField.isLazy() ? Kind.LAZY_STRUCTURE : Kind.STRUCTURE;
+      return new FieldPlan(kind, field, handle, ((StructureTaggedField) taggedField).getType(), taggedField.getTag(), true, null, null);
+    }
+
+    if (taggedField.isCollection()) {
+      final var collectionTaggedField = (CollectionTaggedField) taggedField;
+
+      AsnConverter<byte[], Object> converter = null;
+      if (!collectionTaggedField.isStructured()) {
+        //noinspection unchecked
+        converter = converterLoader.apply((Class<? extends AsnConverter<byte[], Object>>) collectionTaggedField.getConverter());
+      }
+
+      final var kind = taggedField.isLazy() ? Kind.LAZY_COLLECTION : Kind.COLLECTION;
+      return new FieldPlan(kind, field, handle, collectionTaggedField.getType(), collectionTaggedField.getElementTag(),
+          collectionTaggedField.isStructured(), converter, collectionFactory(ClassUtils.valueType(field)));
+    }
+
+    throw new AsnDecodeException("Unknown TaggedField type: " + taggedField);
+  }
+
+  private static Kind primitiveKind(final AsnConverter<byte[], ?> converter, final Class<?> fieldType) {
+    if (!BerAutoResolver.isPrimitiveConverter(converter, fieldType)) {
+      return Kind.PRIMITIVE;
+    }
+
+    if (fieldType == int.class) {
+      return Kind.INT;
+    }
+
+    if (fieldType == long.class) {
+      return Kind.LONG;
+    }
+
+    if (fieldType == short.class) {
+      return Kind.SHORT;
+    }
+
+    return Kind.BOOLEAN;
+  }
+
+  private static Supplier<Collection<Object>> collectionFactory(final Class<?> fieldClass) {
+    if (fieldClass.isAssignableFrom(List.class)) {
+      return ArrayList::new;
+    }
+
+    if (fieldClass.isAssignableFrom(Set.class)) {
+      return HashSet::new;
+    }
+
+    // unsupported collections only fail if they are actually present in the decoded data
+    return () -> {
+      throw new AsnDecodeException(String.format("Unsupported collection type: '%s'. Only List and Set supported!", fieldClass));
+    };
+  }
+
+  private static Constructor<?> constructor(final Class<?> type) {
+    try {
+      return type.getDeclaredConstructor();
+    } catch (final NoSuchMethodException e) {
+      throw new AsnConfigurationException(String.format("Missing no-arg constructor in %s", type.getName()), e);
+    }
+  }
+
+  private static Method postProcessMethod(final Class<?> type) {
+    final var asnPostProcessMethod = type.getDeclaredAnnotation(AsnPostProcessMethod.class);
+    if (asnPostProcessMethod == null) {
+      return null;
+    }
+
+    try {
+      final var declaredMethod = type.getDeclaredMethod(asnPostProcessMethod.value());
+      declaredMethod.setAccessible(true);
+      return declaredMethod;
+    } catch (final NoSuchMethodException e) {
+      throw new AsnConfigurationException(String.format("Missing post process method %s in %s", asnPostProcessMethod.value(), type.getName()), e);
+    }
+  }
+
+  /**
+   * INT, LONG, SHORT and BOOLEAN are primitive fields decoded by a primitive converter, without boxing.
+   * LAZY_STRUCTURE and LAZY_COLLECTION are {@link com.github.alturkovic.asn.Lazy} fields decoded on first access.
+   */
+  enum Kind {
+    PRIMITIVE, INT, LONG, SHORT, BOOLEAN, STRUCTURE, COLLECTION, LAZY_STRUCTURE, LAZY_COLLECTION
+  }
+
+  /**
+   * Resolved decoding instructions for a single field, collection or polymorphic implementation.
+   */
+  @Getter
+  static class FieldPlan {
+    private final Kind kind;
+    private final Field field;
+    private final FieldHandle handle;
+    // type of the field, of the collection elements or of the polymorphic implementation
+    private final Class<?> type;
+    // tag of the element, only checked for collection elements
+    private final Tag elementTag;
+    private final long packedElementTag;
+    private final boolean structured;
+    private final AsnConverter<byte[], ?> converter;
+    // converter can decode the value in place, see BufferAsnConverter
+    private final boolean buffered;
+    private final Supplier<Collection<Object>> collectionFactory;
+
+    // linked on first use to support recursive structures, plans are immutable so a racy link is harmless
+    @Setter(AccessLevel.PACKAGE)
+    private BerDecodePlan nestedPlan;
+
+    private FieldPlan(final Kind kind, final Field field, final FieldHandle handle, final Class<?> type, final Tag elementTag, final boolean structured,
+                      final AsnConverter<byte[], ?> converter, final Supplier<Collection<Object>> collectionFactory) {
+      this.kind = kind;
+      this.field = field;
+      this.handle = handle;
+      this.type = type;
+      this.elementTag = elementTag;
+      this.packedElementTag = elementTag == null ? -1 : BerUtils.packTag(elementTag);
+      this.structured = structured;
+      this.converter = converter;
+      this.buffered = converter instanceof BufferAsnConverter;
+      this.collectionFactory = collectionFactory;
+    }
+  }
+}
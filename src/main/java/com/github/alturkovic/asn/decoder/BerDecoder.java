@@ -26,54 +26,87 @@
 package com.github.alturkovic.asn.decoder;
 
 import com.github.alturkovic.asn.AsnClassDescription;
-import com.github.alturkovic.asn.annotation.AsnPostProcessMethod;
+import com.github.alturkovic.asn.Lazy;
 import com.github.alturkovic.asn.converter.AsnConverter;
+import com.github.alturkovic.asn.converter.BooleanAsnConverter;
+import com.github.alturkovic.asn.converter.BufferAsnConverter;
+import com.github.alturkovic.asn.converter.IntAsnConverter;
+import com.github.alturkovic.asn.converter.LongAsnConverter;
+import com.github.alturkovic.asn.converter.ShortAsnConverter;
+import com.github.alturkovic.asn.decoder.BerDecodePlan.FieldPlan;
 import com.github.alturkovic.asn.exception.AsnConfigurationException;
 import com.github.alturkovic.asn.exception.AsnDecodeException;
 import com.github.alturkovic.asn.exception.AsnException;
 import com.github.alturkovic.asn.field.CollectionTaggedField;
-import com.github.alturkovic.asn.field.PrimitiveTaggedField;
-import com.github.alturkovic.asn.field.TaggedField;
-import com.github.alturkovic.asn.field.accessor.DirectFieldAccessor;
+import com.github.alturkovic.asn.field.StructureTaggedField;
 import com.github.alturkovic.asn.field.accessor.FieldAccessor;
-import com.github.alturkovic.asn.support.Counter;
-import com.github.alturkovic.asn.tag.Tag;
-import com.github.alturkovic.asn.tlv.BerData;
-import com.github.alturkovic.asn.tlv.BerDataReader;
+import com.github.alturkovic.asn.field.accessor.MethodHandleFieldAccessor;
+import com.github.alturkovic.asn.tlv.BerMappedFileReader;
+import com.github.alturkovic.asn.tlv.BerSlice;
+import com.github.alturkovic.asn.tlv.BerSliceReader;
+import com.github.alturkovic.asn.tlv.BerStreamReader;
 import com.github.alturkovic.asn.tlv.TlvDataReader;
+import com.github.alturkovic.asn.tlv.TlvRecordReader;
 import com.github.alturkovic.asn.util.BerUtils;
-import com.github.alturkovic.asn.util.ClassUtils;
-import com.github.alturkovic.asn.util.HexUtils;
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
+import java.nio.channels.FileChannel;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import lombok.AllArgsConstructor;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 
+/**
+ * Decodes BER data into annotated classes.
+ * <p>
+ * The decoder is thread safe as long as its caches, field accessor, TLV reader and converters are, which is true for the defaults.
+ * A single instance should be shared, so that every class is analyzed only once.
+ */
 @Data
-@AllArgsConstructor
 public class BerDecoder implements AsnDecoder<byte[]> {
   private final FieldAccessor fieldAccessor;
   private final TlvDataReader tlvDataReader;
   private final Map<Class<?>, AsnClassDescription> classDescriptionCache;
   private final Map<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterCache;
+  private final BerSliceReader sliceReader;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<Class<?>, BerDecodePlan> decodePlanCache = new ConcurrentHashMap<>();
 
   public BerDecoder() {
-    this(new BerDataReader());
+    this(new BerSliceReader());
   }
 
   public BerDecoder(final TlvDataReader tlvDataReader) {
-    this(tlvDataReader, new DirectFieldAccessor());
+    this(tlvDataReader, new MethodHandleFieldAccessor());
   }
 
   public BerDecoder(final TlvDataReader tlvDataReader, final FieldAccessor fieldAccessor) {
-    this(fieldAccessor, tlvDataReader, new HashMap<>(), new HashMap<>());
+    this(fieldAccessor, tlvDataReader, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+  }
+
+  public BerDecoder(final FieldAccessor fieldAccessor, final TlvDataReader tlvDataReader, final Map<Class<?>, AsnClassDescription> classDescriptionCache,
+                    final Map<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterCache) {
+    this.fieldAccessor = fieldAccessor;
+    this.tlvDataReader = tlvDataReader;
+    this.classDescriptionCache = classDescriptionCache;
+    this.converterCache = converterCache;
+    // nested TLVs are read with the limits of the record reader, when records are read as slices
+    this.sliceReader = tlvDataReader instanceof BerSliceReader ? (BerSliceReader) tlvDataReader : new BerSliceReader();
   }
 
   @Override
@@ -82,140 +115,480 @@ public class BerDecoder implements AsnDecoder<byte[]> {
       throw new AsnDecodeException("Cannot decode null data into: " + clazz.getSimpleName());
     }
 
-    return decodeStructure(clazz, data);
+    return decodeStructure(clazz, readRecord(data), new OccurrenceStack());
   }
 
-  private <X> X decodeStructure(final Class<X> clazz, final byte[] data) {
-    try {
-      final var asnClassDescription = loadAsnClassDescription(clazz);
-      final var tlvData = tlvDataReader.readNext(new ByteArrayInputStream(data));
+  /**
+   * Lazily decodes consecutive top-level records from the input stream, one record at a time.
+   * Only a single record is held in memory and the read buffer is reused between records.
+   * The input stream is not closed by the iterator.
+   *
+   * @param clazz       type of records
+   * @param inputStream stream of concatenated BER records
+   * @param <X>         record class
+   * @return iterator of decoded records
+   */
+  public <X> Iterator<X> iterator(final Class<X> clazz, final InputStream inputStream) {
+    return iterator(clazz, new BerStreamReader(inputStream));
+  }
+
+  /**
+   * Lazily decodes consecutive top-level records read by the record reader, one record at a time.
+   *
+   * @param clazz        type of records
+   * @param recordReader reader of records, such as {@link BerStreamReader} or {@link BerMappedFileReader}
+   * @param <X>          record class
+   * @return iterator of decoded records
+   */
+  public <X> Iterator<X> iterator(final Class<X> clazz, final TlvRecordReader recordReader) {
+    final var records = recordIterator(clazz, recordReader, null);
+
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return records.hasNext();
+      }
+
+      @Override
+      public X next() {
+        return records.next().getValue();
+      }
+    };
+  }
+
+  /**
+   * Lazily decodes consecutive top-level records from the input stream, see {@link #iterator(Class, InputStream)}.
+   *
+   * @param clazz       type of records
+   * @param inputStream stream of concatenated BER records
+   * @param <X>         record class
+   * @return sequential stream of decoded records
+   */
+  public <X> Stream<X> stream(final Class<X> clazz, final InputStream inputStream) {
+    return stream(clazz, new BerStreamReader(inputStream));
+  }
+
+  /**
+   * Lazily decodes consecutive top-level records read by the record reader, see {@link #iterator(Class, TlvRecordReader)}.
+   *
+   * @param clazz        type of records
+   * @param recordReader reader of records
+   * @param <X>          record class
+   * @return sequential stream of decoded records
+   */
+  public <X> Stream<X> stream(final Class<X> clazz, final TlvRecordReader recordReader) {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(clazz, recordReader), Spliterator.ORDERED), false);
+  }
+
+  /**
+   * Lazily decodes consecutive top-level records read by the record reader, keeping the offset and length of every record.
+   *
+   * @param clazz        type of records
+   * @param recordReader reader of records
+   * @param <X>          record class
+   * @return sequential stream of decoded records with their positions
+   */
+  public <X> Stream<BerRecord<X>> records(final Class<X> clazz, final TlvRecordReader recordReader) {
+    return records(clazz, recordReader, null);
+  }
+
+  /**
+   * Lazily decodes consecutive top-level records from the input stream, reporting records that cannot be decoded instead of failing,
+   * see {@link #records(Class, TlvRecordReader, Consumer)}.
+   *
+   * @param clazz          type of records
+   * @param inputStream    stream of concatenated BER records
+   * @param failureHandler receives every record that could not be decoded
+   * @param <X>            record class
+   * @return sequential stream of decoded records
+   */
+  public <X> Stream<X> stream(final Class<X> clazz, final InputStream inputStream, final Consumer<BerRecordFailure> failureHandler) {
+    return records(clazz, new BerStreamReader(inputStream), failureHandler).map(BerRecord::getValue);
+  }
+
+  /**
+   * Lazily decodes consecutive top-level records read by the record reader, reporting records that cannot be decoded instead of failing.
+   * <p>
+   * Every record is read by its length before it is decoded, so a record with malformed contents is reported to the failure handler
+   * and decoding continues with the next record. Failures of the record reader itself, such as a truncated or malformed record header,
+   * still end the stream with an exception, because the start of the next record cannot be known.
+   *
+   * @param clazz          type of records
+   * @param recordReader   reader of records
+   * @param failureHandler receives every record that could not be decoded, if null the first failure is thrown
+   * @param <X>            record class
+   * @return sequential stream of successfully decoded records with their positions
+   */
+  public <X> Stream<BerRecord<X>> records(final Class<X> clazz, final TlvRecordReader recordReader, final Consumer<BerRecordFailure> failureHandler) {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(recordIterator(clazz, recordReader, failureHandler), Spliterator.ORDERED), false);
+  }
+
+  private <X> Iterator<BerRecord<X>> recordIterator(final Class<X> clazz, final TlvRecordReader recordReader, final Consumer<BerRecordFailure> failureHandler) {
+    final var retainsData = hasLazyFields(clazz, new HashSet<>());
+    final var occurrences = new OccurrenceStack();
+
+    return new Iterator<>() {
+      private BerRecord<X> next;
+
+      @Override
+      public boolean hasNext() {
+        // records are decoded ahead, so that failed ones can be skipped
+        while (next == null) {
+          final var record = recordReader.readNext();
+          if (record == null) {
+            return false;
+          }
+
+          next = decodeRecord(record);
+        }
+        return true;
+      }
+
+      @Override
+      public BerRecord<X> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
 
-      if (clazz.isInterface()) {
-        return decodePolymorphic(asnClassDescription, tlvData.getValue());
+        final var result = next;
+        next = null;
+        return result;
       }
 
-      final var valueStream = new ByteArrayInputStream(tlvData.getValue());
-      final var instance = clazz.getDeclaredConstructor().newInstance();
+      private BerRecord<X> decodeRecord(final BerSlice read) {
+        // record readers reuse their buffer, so records with lazy fields need their own copy
+        final var record = retainsData ? sliceReader.readNext(read.toTlv()) : read;
+
+        try {
+          return new BerRecord<>(recordReader.getRecordOffset(), record.getTotalLength(), decodeStructure(clazz, record, occurrences));
+        } catch (final AsnDecodeException e) {
+          if (failureHandler == null) {
+            throw e;
+          }
+
+          // exception offsets are relative to the decoded buffer, which is not necessarily aligned with the source
+          final var recordOffset = recordReader.getRecordOffset();
+          final var failureOffset = e.getOffset() < 0 ? -1 : recordOffset + e.getOffset() - record.getTagOffset();
+          failureHandler.accept(new BerRecordFailure(recordOffset, record.getTotalLength(), failureOffset, e));
+          return null;
+        }
+      }
+    };
+  }
+
+  /**
+   * Decodes all concatenated top-level records of the data in parallel, using the common fork/join pool.
+   *
+   * @param clazz type of records
+   * @param data  concatenated BER records
+   * @param <X>   record class
+   * @return decoded records in the order of the data
+   */
+  public <X> List<X> decodeAll(final Class<X> clazz, final byte[] data) {
+    return decodeAll(clazz, data, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Decodes all concatenated top-level records of the data in parallel.
+   * <p>
+   * Record boundaries are found by a sequential scan of record headers, after which ranges of records are decoded by tasks of the pool.
+   * The first failure of any record fails the whole call.
+   *
+   * @param clazz type of records
+   * @param data  concatenated BER records
+   * @param pool  pool running the decoding tasks
+   * @param <X>   record class
+   * @return decoded records in the order of the data
+   */
+  public <X> List<X> decodeAll(final Class<X> clazz, final byte[] data, final ForkJoinPool pool) {
+    if (data == null) {
+      throw new AsnDecodeException("Cannot decode null data into: " + clazz.getSimpleName());
+    }
+
+    return new ParallelRecordDecoder<>(this, clazz).decode(data, pool);
+  }
+
+  /**
+   * Decodes all concatenated top-level records of the file in parallel, see {@link #decodeAll(Class, byte[], ForkJoinPool)}.
+   * Every task copies only its own range of records out of the mapped file, so the whole file is never held in memory at once,
+   * although all decoded records are.
+   *
+   * @param clazz   type of records
+   * @param channel file of concatenated BER records, read from its beginning and not closed
+   * @param pool    pool running the decoding tasks
+   * @param <X>     record class
+   * @return decoded records in the order of the file
+   */
+  public <X> List<X> decodeAll(final Class<X> clazz, final FileChannel channel, final ForkJoinPool pool) {
+    return new ParallelRecordDecoder<>(this, clazz).decode(channel, pool);
+  }
+
+  <X> X decodeRecord(final Class<X> clazz, final BerSlice record, final OccurrenceStack occurrences) {
+    return decodeStructure(clazz, record, occurrences);
+  }
+
+  private BerSlice readRecord(final byte[] data) {
+    if (tlvDataReader instanceof BerSliceReader) {
+      return ((BerSliceReader) tlvDataReader).readNext(data);
+    }
+
+    // custom readers can still be used to locate the record, but it needs to be copied once to be viewed as a slice
+    return sliceReader.readNext(tlvDataReader.readNext(new ByteArrayInputStream(data)).toTlv());
+  }
+
+  private <X> X decodeStructure(final Class<X> clazz, final BerSlice tlvData, final OccurrenceStack occurrences) {
+    try {
+      return decodeStructure(loadDecodePlan(clazz), tlvData, occurrences);
+    } catch (final AsnDecodeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw withPath(new AsnDecodeException(String.format("Cannot decode into '%s' class", clazz.getName()), tlvData.getBuffer(), tlvData.getTagOffset(), e), tlvData);
+    }
+  }
 
-      final var tagCounter = new Counter<Tag>();
-      while (valueStream.available() > 0) {
-        //Read element by element
-        final var fieldTlvData = tlvDataReader.readNext(valueStream);
+  // the already parsed TLV header is passed down, nested structures are viewed in place and never re-serialized
+  @SuppressWarnings("unchecked")
+  private <X> X decodeStructure(final BerDecodePlan plan, final BerSlice tlvData, final OccurrenceStack occurrences) {
+    var base = -1;
+    var position = tlvData.getValueOffset();
+    try {
+      final var buffer = tlvData.getBuffer();
+      final var end = tlvData.getValueEnd();
 
-        final var taggedField = parseTaggedField(asnClassDescription, tagCounter, fieldTlvData);
-        if (taggedField == null) {
+      if (plan.getType().isInterface()) {
+        return decodePolymorphic(plan, sliceReader.readNext(tlvData, tlvData.getValueOffset()), occurrences);
+      }
+
+      final var instance = (X) plan.getConstructor().newInstance();
+
+      base = occurrences.push(plan.getSlotCount());
+      while (position < end) {
+        //Read element by element, the tag is inspected in place and unmapped or surplus elements are skipped without a view or copy
+        final var tagLength = sliceReader.readTagLength(buffer, position, end);
+        final var fieldPlan = plan.findField(BerUtils.parsePackedTag(buffer, position, tagLength), occurrences, base);
+        if (fieldPlan == null) {
+          position = sliceReader.skip(tlvData, position);
           continue;
         }
 
-        if (taggedField.isPrimitive()) {
-          decodePrimitiveField(instance, fieldTlvData, taggedField);
-        } else if (taggedField.isStructure()) {
-          decodeStructureField(instance, fieldTlvData, taggedField);
-        } else if (taggedField.isCollection()) {
-          decodeCollectionField(instance, fieldTlvData, taggedField);
-        } else {
-          throw new AsnDecodeException("Unknown TaggedField type: " + taggedField);
+        final var fieldTlvData = sliceReader.readNext(tlvData, position);
+
+        switch (fieldPlan.getKind()) {
+          case PRIMITIVE:
+          case INT:
+          case LONG:
+          case SHORT:
+          case BOOLEAN:
+            decodePrimitiveField(instance, fieldTlvData, fieldPlan);
+            break;
+          case STRUCTURE:
+            fieldPlan.getHandle().set(instance, decodeStructure(nestedPlan(fieldPlan), fieldTlvData, occurrences));
+            break;
+          case COLLECTION:
+            fieldPlan.getHandle().set(instance, decodeCollection(fieldPlan, fieldTlvData, occurrences));
+            break;
+          case LAZY_STRUCTURE:
+            // lazy values may be decoded later or on another thread, so they get their own counters
+            fieldPlan.getHandle().set(instance, Lazy.undecoded(fieldTlvData, data -> decodeStructure(nestedPlan(fieldPlan), data, new OccurrenceStack())));
+            break;
+          case LAZY_COLLECTION:
+            fieldPlan.getHandle().set(instance, Lazy.undecoded(fieldTlvData, data -> decodeCollection(fieldPlan, data, new OccurrenceStack())));
+            break;
+          default:
+            throw new AsnDecodeException("Unknown field kind: " + fieldPlan.getKind());
         }
+
+        position = fieldTlvData.getEnd();
       }
 
-      invokePostProcessMethod(clazz, instance);
+      if (plan.getPostProcessMethod() != null) {
+        plan.getPostProcessMethod().invoke(instance);
+      }
 
       return instance;
+    } catch (final AsnDecodeException e) {
+      // the failure site already recorded where it happened, enclosing structures only extend the path
+      throw withPath(e, tlvData);
     } catch (final Exception e) {
-      throw new AsnDecodeException(String.format("Cannot decode '%s' into '%s' class", HexUtils.encode(data), clazz.getName()), e);
+      throw withPath(new AsnDecodeException(String.format("Cannot decode into '%s' class", plan.getType().getName()), tlvData.getBuffer(), position, e), tlvData);
+    } finally {
+      if (base >= 0) {
+        occurrences.pop(base);
+      }
     }
   }
 
   @SuppressWarnings("unchecked")
-  private <X> X decodePolymorphic(final AsnClassDescription asnClassDescription, final byte[] data) {
-    // read the next tlv which actually represents the nested choice implementation data
-    final var implementationData = tlvDataReader.readNext(new ByteArrayInputStream(data));
-    final var tag = BerUtils.parseTag(implementationData.getTag());
-    final var implementation = asnClassDescription.findImplementationByTag(tag);
+  private <X> X decodePolymorphic(final BerDecodePlan plan, final BerSlice implementationData, final OccurrenceStack occurrences) {
+    final var implementation = plan.findImplementation(BerUtils.parsePackedTag(implementationData.getBuffer(), implementationData.getTagOffset(), implementationData.getTagLength()));
 
     if (implementation == null) {
       return null;
     }
 
-    if (ClassUtils.isPrimitiveOrWrapper(implementation)) {
-      final var converter = loadAsnConverterFromCache((Class<? extends AsnConverter<byte[], Object>>) implementation);
-      return (X) converter.decode(implementationData.getValue());
+    if (implementation.getKind() == BerDecodePlan.Kind.PRIMITIVE) {
+      return (X) convert(implementation, implementationData);
     }
 
-    return (X) decodeStructure(implementation, implementationData.toTlv());
+    return decodeStructure(nestedPlan(implementation), implementationData, occurrences);
   }
 
-  private void decodeCollection(final Collection<Object> collection, final byte[] elementData, final CollectionTaggedField taggedField) {
+  private void decodeCollection(final Collection<Object> collection, final BerSlice collectionData, final FieldPlan fieldPlan, final OccurrenceStack occurrences) {
+    var position = collectionData.getValueOffset();
     try {
-      final var stream = new ByteArrayInputStream(elementData);
-      while (stream.available() > 0) {
-        final var elementBerData = tlvDataReader.readNext(stream);
-        final var parsedElementTag = BerUtils.parseTag(elementBerData.getTag());
-
-        if (taggedField.getType().isInterface()) {
-          final var asnClassDescription = loadAsnClassDescription(taggedField.getType());
-          final var decodedType = decodePolymorphic(asnClassDescription, elementBerData.toTlv());
+      final var buffer = collectionData.getBuffer();
+      final var end = collectionData.getValueEnd();
+      while (position < end) {
+        if (!fieldPlan.getType().isInterface()
+            && fieldPlan.getPackedElementTag() != BerUtils.parsePackedTag(buffer, position, sliceReader.readTagLength(buffer, position, end))) {
+          // elements with unexpected tags are skipped
+          position = sliceReader.skip(collectionData, position);
+          continue;
+        }
+
+        final var elementBerData = sliceReader.readNext(collectionData, position);
+
+        if (fieldPlan.getType().isInterface()) {
+          final var decodedType = decodePolymorphic(nestedPlan(fieldPlan), elementBerData, occurrences);
           if (decodedType != null) {
             collection.add(decodedType);
           }
-        } else if (taggedField.getElementTag().equals(parsedElementTag)) {
-          if (taggedField.isStructured()) {
-            collection.add(decodeStructure(taggedField.getType(), elementBerData.toTlv()));
-          } else {
-            //noinspection unchecked
-            final var asnConverter = loadAsnConverterFromCache((Class<? extends AsnConverter<byte[], Object>>) taggedField.getConverter());
-            collection.add(asnConverter.decode(elementBerData.getValue()));
-          }
+        } else if (fieldPlan.isStructured()) {
+          collection.add(decodeStructure(nestedPlan(fieldPlan), elementBerData, occurrences));
+        } else {
+          collection.add(convert(fieldPlan, elementBerData));
         }
+
+        position = elementBerData.getEnd();
+      }
+    } catch (final AsnDecodeException e) {
+      throw withPath(e, collectionData);
+    } catch (final Exception e) {
+      throw withPath(new AsnDecodeException(String.format("Cannot decode collection element into '%s' class", fieldPlan.getType().getName()), collectionData.getBuffer(), position, e), collectionData);
+    }
+  }
+
+  private <X> void decodePrimitiveField(final X instance, final BerSlice fieldTlvData, final FieldPlan fieldPlan) {
+    final var handle = fieldPlan.getHandle();
+    final var buffer = fieldTlvData.getBuffer();
+    final var offset = fieldTlvData.getValueOffset();
+    final var length = fieldTlvData.getValueLength();
+    try {
+      switch (fieldPlan.getKind()) {
+        case INT:
+          handle.setInt(instance, ((IntAsnConverter) fieldPlan.getConverter()).decodeInt(buffer, offset, length));
+          break;
+        case LONG:
+          handle.setLong(instance, ((LongAsnConverter) fieldPlan.getConverter()).decodeLong(buffer, offset, length));
+          break;
+        case SHORT:
+          handle.setShort(instance, ((ShortAsnConverter) fieldPlan.getConverter()).decodeShort(buffer, offset, length));
+          break;
+        case BOOLEAN:
+          handle.setBoolean(instance, ((BooleanAsnConverter) fieldPlan.getConverter()).decodeBoolean(buffer, offset, length));
+          break;
+        default:
+          handle.set(instance, convert(fieldPlan, fieldTlvData));
       }
     } catch (final Exception e) {
-      throw new AsnDecodeException(String.format("Cannot decode collection data '%s' into '%s' class", HexUtils.encode(elementData), taggedField.getType().getName()), e);
+      throw withPath(new AsnDecodeException(String.format("Cannot set value into field '%s'", fieldPlan.getField().getName()), buffer, fieldTlvData.getTagOffset(), e), fieldTlvData);
     }
   }
 
-  private <X> void decodePrimitiveField(final X instance, final BerData fieldTlvData, final TaggedField taggedField) {
-    //noinspection unchecked
-    final var asnConverter = loadAsnConverterFromCache((Class<? extends AsnConverter<byte[], Object>>) ((PrimitiveTaggedField) taggedField).getConverter());
+  private Object convert(final FieldPlan fieldPlan, final BerSlice valueData) {
+    if (fieldPlan.isBuffered()) {
+      // decoded straight from the shared buffer, no value copy
+      return ((BufferAsnConverter<?>) fieldPlan.getConverter()).decode(valueData.getBuffer(), valueData.getValueOffset(), valueData.getValueLength());
+    }
+
+    return fieldPlan.getConverter().decode(valueData.getValue());
+  }
 
+  private Collection<Object> decodeCollection(final FieldPlan fieldPlan, final BerSlice collectionData, final OccurrenceStack occurrences) {
+    final var collection = fieldPlan.getCollectionFactory().get();
+    decodeCollection(collection, collectionData, fieldPlan, occurrences);
+    return collection;
+  }
+
+  // tags are only parsed into the path once decoding has already failed
+  private static AsnDecodeException withPath(final AsnDecodeException e, final BerSlice tlvData) {
     try {
-      fieldAccessor.setFieldValue(instance, taggedField.getField(), asnConverter.decode(fieldTlvData.getValue()));
-    } catch (final AsnException e) {
-      throw new AsnDecodeException(String.format("Cannot set value '%s' into field '%s'", HexUtils.encode(fieldTlvData.getValue()), taggedField.getField().getName()), e);
+      return e.addPathElement(BerUtils.parseTag(tlvData.getBuffer(), tlvData.getTagOffset(), tlvData.getTagLength()));
+    } catch (final AsnException tagException) {
+      return e;
     }
   }
 
-  private <X> void decodeStructureField(final X instance, final BerData fieldTlvData, final TaggedField taggedField) {
-    fieldAccessor.setFieldValue(instance, taggedField.getField(), decodeStructure(taggedField.getField().getType(), fieldTlvData.toTlv()));
+  private BerDecodePlan nestedPlan(final FieldPlan fieldPlan) {
+    var nestedPlan = fieldPlan.getNestedPlan();
+    if (nestedPlan == null) {
+      nestedPlan = loadDecodePlan(fieldPlan.getType());
+      fieldPlan.setNestedPlan(nestedPlan);
+    }
+    return nestedPlan;
   }
 
-  private <X> void decodeCollectionField(final X instance, final BerData fieldTlvData, final TaggedField taggedField) {
-    final var fieldClass = taggedField.getField().getType();
+  /**
+   * Checks if decoded instances of the class may keep references to the decoded data, through its own or nested lazy fields.
+   */
+  private boolean hasLazyFields(final Class<?> clazz, final Set<Class<?>> visited) {
+    if (!visited.add(clazz)) {
+      return false;
+    }
+
+    final var asnClassDescription = loadAsnClassDescription(clazz);
+    for (final var implementation : asnClassDescription.getPolymorphics().values()) {
+      if (hasLazyFields(implementation, visited)) {
+        return true;
+      }
+    }
+
+    for (final var taggedField : asnClassDescription.getClassDeclaredOrderedTaggedFields()) {
+      if (taggedField.isLazy()) {
+        return true;
+      }
 
-    final Collection<Object> collection;
+      if (taggedField.isStructure() && hasLazyFields(((StructureTaggedField) taggedField).getType(), visited)) {
+        return true;
+      }
 
-    if (fieldClass.isAssignableFrom(List.class)) {
-      collection = new ArrayList<>();
-    } else if (fieldClass.isAssignableFrom(Set.class)) {
-      collection = new HashSet<>();
-    } else {
-      throw new AsnDecodeException(String.format("Unsupported collection type: '%s'. Only List and Set supported!", fieldClass));
+      final var collectionTaggedField = taggedField.isCollection() ? (CollectionTaggedField) taggedField : null;
+      if (collectionTaggedField != null && collectionTaggedField.isStructured() && hasLazyFields(collectionTaggedField.getType(), visited)) {
+        return true;
+      }
     }
 
-    fieldAccessor.setFieldValue(instance, taggedField.getField(), collection);
-    decodeCollection(collection, fieldTlvData.getValue(), (CollectionTaggedField) taggedField);
+    return false;
   }
 
-  private TaggedField parseTaggedField(final AsnClassDescription asnClassDescription, final Counter<Tag> tagCounter, final BerData fieldTlvData) {
-    final var parsedFieldTag = BerUtils.parseTag(fieldTlvData.getTag());
-    final var index = tagCounter.count(parsedFieldTag);
-    return asnClassDescription.findByTag(parsedFieldTag, index);
+  private BerDecodePlan loadDecodePlan(final Class<?> clazz) {
+    final var decodePlan = decodePlanCache.get(clazz);
+    if (decodePlan != null) {
+      return decodePlan;
+    }
+
+    // compiled outside of computeIfAbsent because compiling loads from the other caches, a duplicate compilation is harmless
+    final var compiled = BerDecodePlan.compile(clazz, loadAsnClassDescription(clazz), fieldAccessor, this::loadAsnConverterFromCache);
+    final var previous = decodePlanCache.putIfAbsent(clazz, compiled);
+    return previous == null ? compiled : previous;
   }
 
   private AsnClassDescription loadAsnClassDescription(final Class<?> clazz) {
+    // plain get first, so that warmed up concurrent caches are never locked
+    final var asnClassDescription = classDescriptionCache.get(clazz);
+    if (asnClassDescription != null) {
+      return asnClassDescription;
+    }
+
     return classDescriptionCache.computeIfAbsent(clazz, AsnClassDescription::new);
   }
 
   private AsnConverter<byte[], Object> loadAsnConverterFromCache(final Class<? extends AsnConverter<byte[], Object>> asnConverterClass) {
+    final var asnConverter = converterCache.get(asnConverterClass);
+    if (asnConverter != null) {
+      return asnConverter;
+    }
+
     return converterCache.computeIfAbsent(asnConverterClass, c -> {
       try {
         return c.getDeclaredConstructor().newInstance();
@@ -224,16 +597,4 @@ public class BerDecoder implements AsnDecoder<byte[]> {
       }
     });
   }
-
-  private <X> void invokePostProcessMethod(final Class<X> clazz, final X instance) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-    final var asnPostProcessMethod = clazz.getDeclaredAnnotation(AsnPostProcessMethod.class);
-
-    if (asnPostProcessMethod != null) {
-      final var declaredMethod = clazz.getDeclaredMethod(asnPostProcessMethod.value());
-      if (!declaredMethod.canAccess(instance)) {
-        declaredMethod.setAccessible(true);
-      }
-      declaredMethod.invoke(instance);
-    }
-  }
 }
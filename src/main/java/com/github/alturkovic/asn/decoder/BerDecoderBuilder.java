@@ -27,21 +27,29 @@ package com.github.alturkovic.asn.decoder;
 
 import com.github.alturkovic.asn.AsnClassDescription;
 import com.github.alturkovic.asn.converter.AsnConverter;
-import com.github.alturkovic.asn.field.accessor.DirectFieldAccessor;
 import com.github.alturkovic.asn.field.accessor.FieldAccessor;
-import com.github.alturkovic.asn.tlv.BerDataReader;
+import com.github.alturkovic.asn.field.accessor.MethodHandleFieldAccessor;
+import com.github.alturkovic.asn.tlv.BerSliceReader;
 import com.github.alturkovic.asn.tlv.TlvDataReader;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.NoArgsConstructor;
 
+/**
+ * Builds a {@link BerDecoder}.
+ * <p>
+ * With the default configuration, the built decoder is thread safe and a single instance can be shared between any number of threads.
+ * Caches are {@link ConcurrentHashMap}s, so every class and converter is resolved once and then only read without locking.
+ * When overriding caches, field accessor, TLV reader or converters, they must be thread safe as well if the decoder will be shared.
+ * A non thread safe {@link java.util.HashMap} is fine for a decoder confined to a single thread.
+ */
 @NoArgsConstructor
 public class BerDecoderBuilder {
 
-  private FieldAccessor fieldAccessor = new DirectFieldAccessor();
-  private TlvDataReader tlvDataReader = new BerDataReader();
-  private Map<Class<?>, AsnClassDescription> classDescriptionCache = new HashMap<>();
-  private Map<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterCache = new HashMap<>();
+  private FieldAccessor fieldAccessor = new MethodHandleFieldAccessor();
+  private TlvDataReader tlvDataReader = new BerSliceReader();
+  private Map<Class<?>, AsnClassDescription> classDescriptionCache = new ConcurrentHashMap<>();
+  private Map<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterCache = new ConcurrentHashMap<>();
 
   public BerDecoderBuilder fieldAccessor(final FieldAccessor fieldAccessor) {
     this.fieldAccessor = fieldAccessor;
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.decoder;
+
+import java.util.Arrays;
+
+/**
+ * Counts already decoded elements per tag slot of every structure that is currently being decoded.
+ * Nested structures push their counters on top of the parent ones, so a single growing array is reused for a whole decode
+ * and for all records of an iterator. Instances are not thread safe and are confined to a single decode.
+ */
+class OccurrenceStack {
+  private int[] occurrences = new int[32];
+  private int top;
+
+  /**
+   * Reserves zeroed counters for a structure.
+   *
+   * @param slotCount number of tag slots of the structure
+   * @return base index of the reserved counters
+   */
+  int push(final int slotCount) {
+    final var base = top;
+    top += slotCount;
+    if (top > occurrences.length) {
+      occurrences = Arrays.copyOf(occurrences, Math.max(top, occurrences.length * 2));
+    }
+    // counters below the old length may still hold counts of popped structures
+    Arrays.fill(occurrences, base, top, 0);
+    return base;
+  }
+
+  /**
+   * Releases the counters of the structure and of everything pushed after it.
+   *
+   * @param base base index returned by {@link #push(int)}
+   */
+  void pop(final int base) {
+    top = base;
+  }
+
+  /**
+   * @param base base index of the structure counters
+   * @param slot tag slot
+   * @return number of elements counted so far, before this one
+   */
+  int next(final int base, final int slot) {
+    return occurrences[base + slot]++;
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.decoder;
+
+import com.github.alturkovic.asn.exception.AsnReadException;
+import com.github.alturkovic.asn.tlv.BerMappedFileReader;
+import com.github.alturkovic.asn.tlv.BerSliceReader;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decodes concatenated top-level records in parallel.
+ * <p>
+ * Record boundaries are found first by a sequential scan which only reads record headers, then ranges of records are decoded
+ * by fork/join tasks, each with its own decoding state. Results are stored by record index, so their order matches the source.
+ *
+ * @param <X> record class
+ */
+class ParallelRecordDecoder<X> {
+  // ranges are split until they hold about this many bytes, so that every task is large enough to outweigh its scheduling
+  private static final int CHUNK_SIZE = 256 * 1024;
+
+  private final BerDecoder decoder;
+  private final Class<X> clazz;
+  private final BerSliceReader sliceReader;
+
+  ParallelRecordDecoder(final BerDecoder decoder, final Class<X> clazz) {
+    this.decoder = decoder;
+    this.clazz = clazz;
+    this.sliceReader = decoder.getSliceReader();
+  }
+
+  List<X> decode(final byte[] data, final ForkJoinPool pool) {
+    final var boundaries = new Boundaries();
+    var position = 0;
+    while (position < data.length) {
+      position = sliceReader.skip(data, position, data.length);
+      boundaries.add(position);
+    }
+
+    // records are viewed in place, the data is already owned by the caller
+    return decode(boundaries, pool, (from, to, results) -> decodeRange(data, 0, boundaries.values, from, to, results));
+  }
+
+  List<X> decode(final FileChannel channel, final ForkJoinPool pool) {
+    final var boundaries = new Boundaries();
+    final var reader = new BerMappedFileReader(channel);
+    while (reader.skipNext()) {
+      boundaries.add(reader.getPosition());
+    }
+
+    // every range is copied out of the file once, mapping is thread safe and records of a range are viewed in its copy
+    return decode(boundaries, pool, (from, to, results) -> {
+      final var start = boundaries.values[from];
+      final var length = boundaries.values[to] - start;
+      if (length > Integer.MAX_VALUE - 8) {
+        throw new AsnReadException(String.format("Record at offset %d is too large", start));
+      }
+
+      final var chunk = new byte[(int) length];
+      try {
+        channel.map(FileChannel.MapMode.READ_ONLY, start, length).get(chunk);
+      } catch (final IOException e) {
+        throw new AsnReadException(e);
+      }
+
+      decodeRange(chunk, start, boundaries.values, from, to, results);
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<X> decode(final Boundaries boundaries, final ForkJoinPool pool, final RangeDecoder rangeDecoder) {
+    final var results = new Object[boundaries.size - 1];
+    if (results.length > 0) {
+      pool.invoke(new RangeTask(boundaries.values, 0, results.length, rangeDecoder, results));
+    }
+    return (List<X>) Arrays.asList(results);
+  }
+
+  // decodes records [from, to) from the buffer, which starts at the given offset of the source
+  private void decodeRange(final byte[] buffer, final long bufferOffset, final long[] boundaries, final int from, final int to, final Object[] results) {
+    final var occurrences = new OccurrenceStack();
+    for (var i = from; i < to; i++) {
+      final var record = sliceReader.readNext(buffer, (int) (boundaries[i] - bufferOffset), (int) (boundaries[i + 1] - bufferOffset));
+      results[i] = decoder.decodeRecord(clazz, record, occurrences);
+    }
+  }
+
+  private interface RangeDecoder {
+    void decode(int from, int to, Object[] results);
+  }
+
+  private static class RangeTask extends RecursiveAction {
+    private final long[] boundaries;
+    private final int from;
+    private final int to;
+    private final RangeDecoder rangeDecoder;
+    private final Object[] results;
+
+    private RangeTask(final long[] boundaries, final int from, final int to, final RangeDecoder rangeDecoder, final Object[] results) {
+      this.boundaries = boundaries;
+      this.from = from;
+      this.to = to;
+      this.rangeDecoder = rangeDecoder;
+      this.results = results;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from < 2 || boundaries[to] - boundaries[from] <= CHUNK_SIZE) {
+        rangeDecoder.decode(from, to, results);
+        return;
+      }
+
+      final var middle = (from + to) >>> 1;
+      invokeAll(new RangeTask(boundaries, from, middle, rangeDecoder, results), new RangeTask(boundaries, middle, to, rangeDecoder, results));
+    }
+  }
+
+  // offsets of record starts, followed by the end of the last record
+  private static class Boundaries {
+    private long[] values = new long[64];
+    private int size = 1;
+
+    private void add(final long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.encoder;
+
+import com.github.alturkovic.asn.AsnClassDescription;
+import com.github.alturkovic.asn.BerAutoResolver;
+import com.github.alturkovic.asn.converter.AsnConverter;
+import com.github.alturkovic.asn.exception.AsnEncodeException;
+import com.github.alturkovic.asn.field.CollectionTaggedField;
+import com.github.alturkovic.asn.field.PrimitiveTaggedField;
+import com.github.alturkovic.asn.field.TaggedField;
+import com.github.alturkovic.asn.field.accessor.FieldAccessor;
+import com.github.alturkovic.asn.field.accessor.FieldHandle;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * Precompiled encoding instructions for a single class.
+ * Field handles, converter instances and the way every primitive value is converted are resolved once when the plan is compiled,
+ * leaving only field reads and conversions for every encoded object.
+ */
+@Getter
+class BerEncodePlan {
+  // identifier octets of the class AsnStructure annotation, null if it is missing
+  private final byte[] encodedStructureTag;
+  // fields in the order in which they are encoded
+  private final FieldPlan[] fields;
+
+  private BerEncodePlan(final byte[] encodedStructureTag, final FieldPlan[] fields) {
+    this.encodedStructureTag = encodedStructureTag;
+    this.fields = fields;
+  }
+
+  static BerEncodePlan compile(final AsnClassDescription asnClassDescription, final FieldAccessor fieldAccessor,
+                               final Function<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterLoader) {
+    final var taggedFields = asnClassDescription.getClassDeclaredOrderedTaggedFields();
+    final var fields = new FieldPlan[taggedFields.size()];
+    for (var i = 0; i < fields.length; i++) {
+      fields[i] = fieldPlan(taggedFields.get(i), fieldAccessor, converterLoader);
+    }
+
+    return new BerEncodePlan(asnClassDescription.getEncodedStructureTag(), fields);
+  }
+
+  private static FieldPlan fieldPlan(final TaggedField taggedField, final FieldAccessor fieldAccessor,
+                                     final Function<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterLoader) {
+    final var field = taggedField.getField();
+    final var handle = fieldAccessor.handle(field);
+
+    if (taggedField.isPrimitive()) {
+      //noinspection unchecked
+      final var converter = converterLoader.apply((Class<? extends AsnConverter<byte[], Object>>) ((PrimitiveTaggedField) taggedField).getConverter());
+      return new FieldPlan(primitiveKind(converter, field.getType()), taggedField, handle, null, false, converter);
+    }
+
+    if (taggedField.isStructure()) {
+      return new FieldPlan(Kind.STRUCTURE, taggedField, handle, null, true, null);
+    }
+
+    if (taggedField.isCollection()) {
+      final var collectionTaggedField = (CollectionTaggedField) taggedField;
+
+      AsnConverter<byte[], Object> converter = null;
+      if (!collectionTaggedField.isStructured()) {
+        //noinspection unchecked
+        converter = converterLoader.apply((Class<? extends AsnConverter<byte[], Object>>) collectionTaggedField.getConverter());
+      }
+
+      return new FieldPlan(Kind.COLLECTION, taggedField, handle, collectionTaggedField.getEncodedElementTag(), collectionTaggedField.isStructured(), converter);
+    }
+
+    throw new AsnEncodeException("Unknown TaggedField type: " + taggedField);
+  }
+
+  private static Kind primitiveKind(final AsnConverter<byte[], ?> converter, final Class<?> fieldType) {
+    if (!BerAutoResolver.isPrimitiveConverter(converter, fieldType)) {
+      return Kind.PRIMITIVE;
+    }
+
+    if (fieldType == int.class) {
+      return Kind.INT;
+    }
+
+    if (fieldType == long.class) {
+      return Kind.LONG;
+    }
+
+    if (fieldType == short.class) {
+      return Kind.SHORT;
+    }
+
+    return Kind.BOOLEAN;
+  }
+
+  /**
+   * INT, LONG, SHORT and BOOLEAN are primitive fields encoded by a primitive converter, without boxing.
+   */
+  enum Kind {
+    PRIMITIVE, INT, LONG, SHORT, BOOLEAN, STRUCTURE, COLLECTION
+  }
+
+  /**
+   * Resolved encoding instructions for a single field.
+   */
+  @Getter
+  static class FieldPlan {
+    private final Kind kind;
+    private final TaggedField taggedField;
+    private final FieldHandle handle;
+    private final byte[] encodedTag;
+    // identifier octets of collection elements
+    private final byte[] encodedElementTag;
+    private final boolean structured;
+    private final boolean lazy;
+    private final AsnConverter<byte[], Object> converter;
+
+    private FieldPlan(final Kind kind, final TaggedField taggedField, final FieldHandle handle, final byte[] encodedElementTag, final boolean structured,
+                      final AsnConverter<byte[], Object> converter) {
+      this.kind = kind;
+      this.taggedField = taggedField;
+      this.handle = handle;
+      this.encodedTag = taggedField.getEncodedTag();
+      this.encodedElementTag = encodedElementTag;
+      this.structured = structured;
+      this.lazy = taggedField.isLazy();
+      this.converter = converter;
+    }
+  }
+}
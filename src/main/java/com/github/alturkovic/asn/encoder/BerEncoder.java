@@ -26,145 +26,340 @@
 package com.github.alturkovic.asn.encoder;
 
 import com.github.alturkovic.asn.AsnClassDescription;
-import com.github.alturkovic.asn.annotation.AsnStructure;
+import com.github.alturkovic.asn.Lazy;
 import com.github.alturkovic.asn.converter.AsnConverter;
+import com.github.alturkovic.asn.converter.BooleanAsnConverter;
+import com.github.alturkovic.asn.converter.IntAsnConverter;
+import com.github.alturkovic.asn.converter.LongAsnConverter;
+import com.github.alturkovic.asn.converter.ShortAsnConverter;
+import com.github.alturkovic.asn.encoder.BerEncodePlan.FieldPlan;
 import com.github.alturkovic.asn.exception.AsnConfigurationException;
 import com.github.alturkovic.asn.exception.AsnEncodeException;
-import com.github.alturkovic.asn.field.CollectionTaggedField;
-import com.github.alturkovic.asn.field.PrimitiveTaggedField;
-import com.github.alturkovic.asn.field.accessor.DirectFieldAccessor;
 import com.github.alturkovic.asn.field.accessor.FieldAccessor;
-import com.github.alturkovic.asn.tag.Tag;
-import com.github.alturkovic.asn.util.BerUtils;
-import com.github.alturkovic.asn.util.HexUtils;
-import java.io.ByteArrayOutputStream;
+import com.github.alturkovic.asn.field.accessor.FieldHandle;
+import com.github.alturkovic.asn.field.accessor.MethodHandleFieldAccessor;
 import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 
+/**
+ * Encodes annotated classes into BER data.
+ * <p>
+ * The encoder is thread safe as long as its caches, field accessor and converters are, which is true for the defaults.
+ * Parallel encoding uses them from threads of the pool, so it needs them to be thread safe even if the encoder is not shared.
+ * A single instance should be shared, so that every class is analyzed only once.
+ * <p>
+ * Batches of records, and collections with at least {@code parallelThreshold} elements when a pool is configured,
+ * can be encoded by fork/join tasks into separate buffers which are joined in order, producing the same output as sequential encoding.
+ */
 @Data
 @AllArgsConstructor
 public class BerEncoder implements AsnEncoder<byte[]> {
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+  // smallest number of collection elements encoded by a single task, so that tasks outweigh their scheduling and joining
+  private static final int MIN_COLLECTION_CHUNK = 256;
+
   private final FieldAccessor fieldAccessor;
   private final Map<Class<?>, AsnClassDescription> classDescriptionCache;
   private final Map<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterCache;
+  // constructed TLVs are written with an indefinite length and end-of-contents octets, instead of their definite length
+  private final boolean indefiniteLength;
+  // pool encoding elements of large collections in parallel, or null to always encode them sequentially
+  private final ForkJoinPool parallelPool;
+  private final int parallelThreshold;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<Class<?>, BerEncodePlan> encodePlanCache = new ConcurrentHashMap<>();
 
   public BerEncoder() {
-    this(new DirectFieldAccessor());
+    this(new MethodHandleFieldAccessor());
   }
 
   public BerEncoder(final FieldAccessor fieldAccessor) {
-    this(fieldAccessor, new HashMap<>(), new HashMap<>());
+    this(fieldAccessor, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+  }
+
+  public BerEncoder(final FieldAccessor fieldAccessor, final Map<Class<?>, AsnClassDescription> classDescriptionCache,
+                    final Map<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterCache) {
+    this(fieldAccessor, classDescriptionCache, converterCache, false);
+  }
+
+  public BerEncoder(final FieldAccessor fieldAccessor, final Map<Class<?>, AsnClassDescription> classDescriptionCache,
+                    final Map<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterCache, final boolean indefiniteLength) {
+    this(fieldAccessor, classDescriptionCache, converterCache, indefiniteLength, null, DEFAULT_PARALLEL_THRESHOLD);
   }
 
   @Override
   public byte[] encode(final Object object) {
-    final var clazzDeclaredAnnotation = object.getClass().getDeclaredAnnotation(AsnStructure.class);
+    return collect(object).toByteArray();
+  }
+
+  /**
+   * Encodes the object into the output stream. TLVs of the whole object are collected first, but the encoded data is written
+   * straight from them, without being copied into an intermediate array. Many small writes are issued, so the stream should be buffered.
+   *
+   * @param object       object to encode
+   * @param outputStream destination, which is not closed
+   * @return number of written bytes
+   */
+  public long encode(final Object object, final OutputStream outputStream) {
+    final var tlvBuffer = collect(object);
+
+    try {
+      tlvBuffer.writeTo(outputStream);
+    } catch (final IOException e) {
+      throw new AsnEncodeException(String.format("Cannot write encoded '%s'", object), e);
+    }
+
+    return tlvBuffer.getEncodedLength();
+  }
+
+  /**
+   * Encodes the object into the buffer, starting at its current position which is advanced past the encoded data.
+   * TLVs of the whole object are collected first, so the encoded length is known before anything is written.
+   *
+   * @param object     object to encode
+   * @param byteBuffer destination
+   * @return number of written bytes
+   * @throws AsnEncodeException if the remaining space is not large enough, in which case nothing is written and the position is unchanged
+   */
+  public int encode(final Object object, final ByteBuffer byteBuffer) {
+    final var tlvBuffer = collect(object);
+    tlvBuffer.writeTo(byteBuffer);
+    return (int) tlvBuffer.getEncodedLength();
+  }
+
+  /**
+   * Encodes the objects as concatenated top-level records in parallel, using the configured pool or the common pool if none is configured.
+   *
+   * @param objects records to encode
+   * @return encoded records in the iteration order of the collection
+   */
+  public byte[] encodeAll(final Collection<?> objects) {
+    return encodeAll(objects, parallelPool != null ? parallelPool : ForkJoinPool.commonPool());
+  }
 
-    if (clazzDeclaredAnnotation == null) {
+  /**
+   * Encodes the objects as concatenated top-level records in parallel.
+   * <p>
+   * Ranges of records are encoded by tasks of the pool into separate buffers, which are joined in order,
+   * so the result is identical to encoding every object sequentially.
+   *
+   * @param objects records to encode
+   * @param pool    pool running the encoding tasks
+   * @return encoded records in the iteration order of the collection
+   */
+  public byte[] encodeAll(final Collection<?> objects, final ForkJoinPool pool) {
+    return collectAll(objects, pool).toByteArray();
+  }
+
+  /**
+   * Encodes the objects as concatenated top-level records in parallel, see {@link #encodeAll(Collection, ForkJoinPool)},
+   * and writes them into the output stream once all of them are encoded. Many small writes are issued, so the stream should be buffered.
+   *
+   * @param objects      records to encode
+   * @param outputStream destination, which is not closed
+   * @param pool         pool running the encoding tasks
+   * @return number of written bytes
+   */
+  public long encodeAll(final Collection<?> objects, final OutputStream outputStream, final ForkJoinPool pool) {
+    final var tlvBuffer = collectAll(objects, pool);
+
+    try {
+      tlvBuffer.writeTo(outputStream);
+    } catch (final IOException e) {
+      throw new AsnEncodeException(String.format("Cannot write %d encoded records", objects.size()), e);
+    }
+
+    return tlvBuffer.getEncodedLength();
+  }
+
+  private BerTlvBuffer collect(final Object object) {
+    final var tlvBuffer = new BerTlvBuffer(indefiniteLength);
+    encodeRecord(object, tlvBuffer);
+    return tlvBuffer;
+  }
+
+  private BerTlvBuffer collectAll(final Collection<?> objects, final ForkJoinPool pool) {
+    if (objects.isEmpty()) {
+      return new BerTlvBuffer(indefiniteLength);
+    }
+
+    return encodeParallel(objects.toArray(), pool, 1, this::encodeRecord);
+  }
+
+  private void encodeRecord(final Object object, final BerTlvBuffer tlvBuffer) {
+    final var encodedStructureTag = loadEncodePlan(object.getClass()).getEncodedStructureTag();
+
+    if (encodedStructureTag == null) {
       throw new AsnEncodeException("Missing class AsnStructure annotation");
     }
 
-    final var tag = clazzDeclaredAnnotation.value();
-    final var fieldStructureTag = new Tag(tag.value(), tag.type(), true);
-    return encodeStructure(object, fieldStructureTag);
+    encodeStructure(object, encodedStructureTag, tlvBuffer);
+  }
+
+  // splits the elements into about four ranges per thread of the pool, so that uneven ranges are balanced by work stealing
+  private BerTlvBuffer encodeParallel(final Object[] elements, final ForkJoinPool pool, final int minChunkSize, final RangeEncodeTask.ElementEncoder elementEncoder) {
+    final var chunkSize = Math.max(minChunkSize, elements.length / (pool.getParallelism() * 4));
+    return pool.invoke(new RangeEncodeTask(elements, 0, elements.length, chunkSize, indefiniteLength, elementEncoder));
   }
 
-  private byte[] encodeStructure(final Object object, final Tag structureTag) {
-    final BerStructureBuilder berStructureBuilder;
+  // TLVs are only collected here, lengths are resolved as structures end and the output is written once at the end
+  private void encodeStructure(final Object object, final byte[] encodedStructureTag, final BerTlvBuffer tlvBuffer) {
     try {
-      final var clazz = object.getClass();
-      final var asnClassDescription = classDescriptionCache.computeIfAbsent(clazz, AsnClassDescription::new);
-
-      berStructureBuilder = new BerStructureBuilder(structureTag);
-
-      for (final var taggedField : asnClassDescription.getClassDeclaredOrderedTaggedFields()) {
-        final byte[] encoded;
-        if (taggedField.isPrimitive()) {
-          encoded = encodePrimitive(object, (PrimitiveTaggedField) taggedField);
-
-          if (encoded == null) {
-            continue;
-          }
-        } else if (taggedField.isStructure()) {
-          final var fieldValue = fieldAccessor.getFieldValue(object, taggedField.getField());
-
-          if (fieldValue == null) {
-            continue;
-          }
-
-          encoded = encodeStructure(fieldValue, taggedField.getTag());
-        } else if (taggedField.isCollection()) {
-          final var collectionTaggedField = (CollectionTaggedField) taggedField;
-
-          final Collection<Object> collection = fieldAccessor.getFieldValue(object, taggedField.getField());
-
-          if (collection == null) {
-            continue;
-          }
-
-          final var collectionBuilder = new BerStructureBuilder(collectionTaggedField.getTag());
-
-          if (collectionTaggedField.isStructured()) {
-            collection.forEach(e -> collectionBuilder.addValue(encodeStructure(e, collectionTaggedField.getElementTag())));
-          } else {
-            collection.forEach(e -> {
-              //noinspection unchecked
-              final var asnConverter = loadAsnConverterFromCache((Class<? extends AsnConverter<byte[], Object>>) collectionTaggedField.getConverter());
-              collectionBuilder.addValue(encodePrimitive(collectionTaggedField.getElementTag(), asnConverter.encode(e)));
-            });
-          }
-
-          encoded = collectionBuilder.build();
-        } else {
-          continue;
-        }
+      final var encodePlan = loadEncodePlan(object.getClass());
+
+      final var structureIndex = tlvBuffer.beginConstructed(encodedStructureTag);
 
-        berStructureBuilder.addValue(encoded);
+      for (final var fieldPlan : encodePlan.getFields()) {
+        switch (fieldPlan.getKind()) {
+          case STRUCTURE:
+            final var fieldValue = resolveFieldValue(object, fieldPlan, tlvBuffer);
+            if (fieldValue != null) {
+              encodeStructure(fieldValue, fieldPlan.getEncodedTag(), tlvBuffer);
+            }
+            break;
+          case COLLECTION:
+            encodeCollection(resolveFieldValue(object, fieldPlan, tlvBuffer), fieldPlan, tlvBuffer);
+            break;
+          default:
+            encodePrimitive(object, fieldPlan, tlvBuffer);
+        }
       }
+
+      tlvBuffer.endConstructed(structureIndex);
     } catch (final Exception e) {
       throw new AsnEncodeException(String.format("Cannot encode '%s'", object), e);
     }
+  }
+
+  // undecoded lazy values are written back exactly as they were read and resolve to null, otherwise the wrapped value is returned
+  @SuppressWarnings("unchecked")
+  private <T> T resolveFieldValue(final Object object, final FieldPlan fieldPlan, final BerTlvBuffer tlvBuffer) {
+    final Object fieldValue = fieldPlan.getHandle().get(object);
+    if (fieldValue == null || !fieldPlan.isLazy()) {
+      return (T) fieldValue;
+    }
+
+    final var lazy = (Lazy<?>) fieldValue;
+    if (!lazy.isDecoded()) {
+      final var data = lazy.getData();
+      tlvBuffer.addEncoded(data.getBuffer(), data.getTagOffset(), data.getTotalLength());
+      return null;
+    }
 
-    return berStructureBuilder.build();
+    return (T) lazy.get();
   }
 
-  private byte[] encodePrimitive(final Object object, final PrimitiveTaggedField taggedField) {
-    try {
-      //noinspection unchecked
-      final var asnConverter = loadAsnConverterFromCache((Class<? extends AsnConverter<byte[], Object>>) taggedField.getConverter());
-      final var encodedFieldValue = asnConverter.encode(fieldAccessor.getFieldValue(object, taggedField.getField()));
+  private void encodeCollection(final Collection<Object> collection, final FieldPlan fieldPlan, final BerTlvBuffer tlvBuffer) {
+    if (collection == null) {
+      return;
+    }
+
+    final var collectionIndex = tlvBuffer.beginConstructed(fieldPlan.getEncodedTag());
 
-      if (encodedFieldValue == null) {
-        return null;
+    if (parallelPool != null && collection.size() >= parallelThreshold) {
+      tlvBuffer.append(encodeParallel(collection.toArray(), parallelPool, MIN_COLLECTION_CHUNK, collectionElementEncoder(fieldPlan)));
+    } else if (fieldPlan.isStructured()) {
+      for (final var element : collection) {
+        encodeStructure(element, fieldPlan.getEncodedElementTag(), tlvBuffer);
+      }
+    } else {
+      final var asnConverter = fieldPlan.getConverter();
+      final var elementTag = fieldPlan.getEncodedElementTag();
+      for (final var element : collection) {
+        final var encodedElement = asnConverter.encode(element);
+        if (encodedElement != null) {
+          tlvBuffer.addPrimitive(elementTag, encodedElement);
+        }
       }
+    }
 
-      return encodePrimitive(taggedField.getTag(), encodedFieldValue);
-    } catch (final Exception e) {
-      throw new AsnEncodeException(String.format("Cannot encode '%s' from '%s'", taggedField, object), e);
+    tlvBuffer.endConstructed(collectionIndex);
+  }
+
+  private RangeEncodeTask.ElementEncoder collectionElementEncoder(final FieldPlan fieldPlan) {
+    final var elementTag = fieldPlan.getEncodedElementTag();
+    if (fieldPlan.isStructured()) {
+      return (element, tlvBuffer) -> encodeStructure(element, elementTag, tlvBuffer);
     }
+
+    final var asnConverter = fieldPlan.getConverter();
+    return (element, tlvBuffer) -> {
+      final var encodedElement = asnConverter.encode(element);
+      if (encodedElement != null) {
+        tlvBuffer.addPrimitive(elementTag, encodedElement);
+      }
+    };
   }
 
-  private byte[] encodePrimitive(final Tag tag, final byte[] value) {
+  private void encodePrimitive(final Object object, final FieldPlan fieldPlan, final BerTlvBuffer tlvBuffer) {
     try {
-      final var result = new ByteArrayOutputStream();
+      final byte[] encodedFieldValue;
+      if (fieldPlan.getKind() == BerEncodePlan.Kind.PRIMITIVE) {
+        encodedFieldValue = fieldPlan.getConverter().encode(fieldPlan.getHandle().get(object));
+      } else {
+        encodedFieldValue = encodePrimitiveValue(object, fieldPlan.getKind(), fieldPlan.getHandle(), fieldPlan.getConverter());
+      }
 
-      result.write(BerUtils.convert(tag));
-      result.write(BerUtils.encodeLength(value.length));
-      result.write(value);
+      if (encodedFieldValue != null) {
+        tlvBuffer.addPrimitive(fieldPlan.getEncodedTag(), encodedFieldValue);
+      }
+    } catch (final Exception e) {
+      throw new AsnEncodeException(String.format("Cannot encode '%s' from '%s'", fieldPlan.getTaggedField(), object), e);
+    }
+  }
 
-      return result.toByteArray();
-    } catch (final IOException e) {
-      throw new UncheckedIOException(String.format("Cannot encode tag %s and value '%s' to a primitive", tag, HexUtils.encode(value)), e);
+  private byte[] encodePrimitiveValue(final Object object, final BerEncodePlan.Kind kind, final FieldHandle handle, final AsnConverter<byte[], ?> asnConverter) {
+    switch (kind) {
+      case INT:
+        return ((IntAsnConverter) asnConverter).encodeInt(handle.getInt(object));
+      case LONG:
+        return ((LongAsnConverter) asnConverter).encodeLong(handle.getLong(object));
+      case SHORT:
+        return ((ShortAsnConverter) asnConverter).encodeShort(handle.getShort(object));
+      default:
+        return ((BooleanAsnConverter) asnConverter).encodeBoolean(handle.getBoolean(object));
+    }
+  }
+
+  private BerEncodePlan loadEncodePlan(final Class<?> clazz) {
+    final var encodePlan = encodePlanCache.get(clazz);
+    if (encodePlan != null) {
+      return encodePlan;
     }
+
+    // compiled outside of computeIfAbsent because compiling loads from the other caches, a duplicate compilation is harmless
+    final var compiled = BerEncodePlan.compile(loadAsnClassDescription(clazz), fieldAccessor, this::loadAsnConverterFromCache);
+    final var previous = encodePlanCache.putIfAbsent(clazz, compiled);
+    return previous == null ? compiled : previous;
+  }
+
+  private AsnClassDescription loadAsnClassDescription(final Class<?> clazz) {
+    // plain get first, so that warmed up concurrent caches are never locked
+    final var asnClassDescription = classDescriptionCache.get(clazz);
+    if (asnClassDescription != null) {
+      return asnClassDescription;
+    }
+
+    return classDescriptionCache.computeIfAbsent(clazz, AsnClassDescription::new);
   }
 
   private AsnConverter<byte[], Object> loadAsnConverterFromCache(final Class<? extends AsnConverter<byte[], Object>> asnConverterClass) {
+    final var asnConverter = converterCache.get(asnConverterClass);
+    if (asnConverter != null) {
+      return asnConverter;
+    }
+
     return converterCache.computeIfAbsent(asnConverterClass, c -> {
       try {
         return c.getDeclaredConstructor().newInstance();
@@ -27,18 +27,31 @@ package com.github.alturkovic.asn.encoder;
 
 import com.github.alturkovic.asn.AsnClassDescription;
 import com.github.alturkovic.asn.converter.AsnConverter;
-import com.github.alturkovic.asn.field.accessor.DirectFieldAccessor;
 import com.github.alturkovic.asn.field.accessor.FieldAccessor;
-import java.util.HashMap;
+import com.github.alturkovic.asn.field.accessor.MethodHandleFieldAccessor;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import lombok.NoArgsConstructor;
 
+/**
+ * Builds a {@link BerEncoder}.
+ * <p>
+ * With the default configuration, the built encoder is thread safe and a single instance can be shared between any number of threads.
+ * Caches are {@link ConcurrentHashMap}s, so every class and converter is resolved once and then only read without locking.
+ * When overriding caches, field accessor or converters, they must be thread safe as well if the encoder will be shared.
+ * They must also be thread safe if an encoder used by a single thread encodes in parallel, with a {@link #parallelPool(ForkJoinPool)}
+ * or {@code encodeAll}, because its tasks use them from threads of the pool.
+ */
 @NoArgsConstructor
 public class BerEncoderBuilder {
 
-  private FieldAccessor fieldAccessor = new DirectFieldAccessor();
-  private Map<Class<?>, AsnClassDescription> classDescriptionCache = new HashMap<>();
-  private Map<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterCache = new HashMap<>();
+  private FieldAccessor fieldAccessor = new MethodHandleFieldAccessor();
+  private Map<Class<?>, AsnClassDescription> classDescriptionCache = new ConcurrentHashMap<>();
+  private Map<Class<? extends AsnConverter<byte[], Object>>, AsnConverter<byte[], Object>> converterCache = new ConcurrentHashMap<>();
+  private boolean indefiniteLength;
+  private ForkJoinPool parallelPool;
+  private int parallelThreshold = BerEncoder.DEFAULT_PARALLEL_THRESHOLD;
 
   public BerEncoderBuilder fieldAccessor(final FieldAccessor fieldAccessor) {
     this.fieldAccessor = fieldAccessor;
@@ -55,7 +68,33 @@ public class BerEncoderBuilder {
     return this;
   }
 
+  /**
+   * Write constructed TLVs with an indefinite length, terminated by end-of-contents octets, for consumers which expect that form.
+   * Primitive TLVs always have a definite length.
+   */
+  public BerEncoderBuilder indefiniteLength(final boolean indefiniteLength) {
+    this.indefiniteLength = indefiniteLength;
+    return this;
+  }
+
+  /**
+   * Encode elements of large collections in parallel with tasks of the pool, producing the same output as sequential encoding.
+   * Also used by default when encoding batches of records.
+   */
+  public BerEncoderBuilder parallelPool(final ForkJoinPool parallelPool) {
+    this.parallelPool = parallelPool;
+    return this;
+  }
+
+  /**
+   * Smallest number of collection elements which are encoded in parallel when a pool is set, smaller collections are encoded sequentially.
+   */
+  public BerEncoderBuilder parallelThreshold(final int parallelThreshold) {
+    this.parallelThreshold = parallelThreshold;
+    return this;
+  }
+
   public BerEncoder build() {
-    return new BerEncoder(fieldAccessor, classDescriptionCache, converterCache);
+    return new BerEncoder(fieldAccessor, classDescriptionCache, converterCache, indefiniteLength, parallelPool, parallelThreshold);
   }
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.encoder;
+
+import com.github.alturkovic.asn.exception.AsnEncodeException;
+import com.github.alturkovic.asn.util.BerBitMask;
+import com.github.alturkovic.asn.util.BerUtils;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Collects TLVs in the order in which they will be written, resolving the length of a constructed TLV as soon as all of its contents are added.
+ * <p>
+ * Because every length is known before anything is written, the encoded result is produced in a single pass into an exactly sized output,
+ * copying every value only once, regardless of how deeply it is nested.
+ * <p>
+ * Constructed TLVs can also be written with an indefinite length, followed by end-of-contents octets.
+ */
+class BerTlvBuffer {
+  private static final int INITIAL_CAPACITY = 16;
+  // length of a constructed TLV written in the indefinite form
+  private static final long INDEFINITE_LENGTH = -1;
+  private static final byte[] END_OF_CONTENTS = new byte[2];
+
+  private final boolean indefiniteLength;
+
+  // null tag marks an already encoded TLV, written from its value buffer as is
+  private byte[][] tags = new byte[INITIAL_CAPACITY][];
+  private byte[][] values = new byte[INITIAL_CAPACITY][];
+  private int[] valueOffsets = new int[INITIAL_CAPACITY];
+  // value lengths, while a constructed TLV is open it holds the encoded length at which it was opened
+  private long[] lengths = new long[INITIAL_CAPACITY];
+  private int size;
+  private long encodedLength;
+
+  BerTlvBuffer() {
+    this(false);
+  }
+
+  /**
+   * @param indefiniteLength true if constructed TLVs should be written with an indefinite length
+   */
+  BerTlvBuffer(final boolean indefiniteLength) {
+    this.indefiniteLength = indefiniteLength;
+  }
+
+  /**
+   * Start a constructed TLV, everything added until it is ended becomes its content.
+   *
+   * @param tag encoded tag
+   * @return index of the TLV, used to end it
+   */
+  int beginConstructed(final byte[] tag) {
+    ensureCapacity();
+    tags[size] = tag;
+    values[size] = null;
+    lengths[size] = encodedLength;
+    return size++;
+  }
+
+  void endConstructed(final int index) {
+    if (indefiniteLength) {
+      lengths[index] = INDEFINITE_LENGTH;
+      encodedLength += tags[index].length + 1;
+      addEncoded(END_OF_CONTENTS, 0, END_OF_CONTENTS.length);
+      return;
+    }
+
+    final var contentLength = encodedLength - lengths[index];
+    if (contentLength > Integer.MAX_VALUE) {
+      throw new AsnEncodeException(String.format("Content of %d bytes is too large for a BER length", contentLength));
+    }
+
+    lengths[index] = contentLength;
+    encodedLength += tags[index].length + BerUtils.lengthOctets((int) contentLength);
+  }
+
+  void addPrimitive(final byte[] tag, final byte[] value) {
+    ensureCapacity();
+    tags[size] = tag;
+    values[size] = value;
+    valueOffsets[size] = 0;
+    lengths[size] = value.length;
+    size++;
+    encodedLength += tag.length + BerUtils.lengthOctets(value.length) + value.length;
+  }
+
+  /**
+   * Add a complete, already encoded TLV which is copied to the output without changes.
+   *
+   * @param buffer buffer holding the TLV
+   * @param offset offset of the TLV
+   * @param length total length of the TLV
+   */
+  void addEncoded(final byte[] buffer, final int offset, final int length) {
+    ensureCapacity();
+    tags[size] = null;
+    values[size] = buffer;
+    valueOffsets[size] = offset;
+    lengths[size] = length;
+    size++;
+    encodedLength += length;
+  }
+
+  /**
+   * Append all TLVs of another buffer, which must not have any open constructed TLVs.
+   * Resolved lengths do not depend on where TLVs are written, so buffers filled independently are joined without re-encoding.
+   *
+   * @param other buffer to append, which should not be used afterwards
+   */
+  void append(final BerTlvBuffer other) {
+    final var required = size + other.size;
+    if (required > tags.length) {
+      final var capacity = Math.max(required, size * 2);
+      tags = Arrays.copyOf(tags, capacity);
+      values = Arrays.copyOf(values, capacity);
+      valueOffsets = Arrays.copyOf(valueOffsets, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+    }
+
+    System.arraycopy(other.tags, 0, tags, size, other.size);
+    System.arraycopy(other.values, 0, values, size, other.size);
+    System.arraycopy(other.valueOffsets, 0, valueOffsets, size, other.size);
+    System.arraycopy(other.lengths, 0, lengths, size, other.size);
+    size = required;
+    encodedLength += other.encodedLength;
+  }
+
+  long getEncodedLength() {
+    return encodedLength;
+  }
+
+  byte[] toByteArray() {
+    if (encodedLength > Integer.MAX_VALUE - 8) {
+      throw new AsnEncodeException(String.format("Encoded data of %d bytes does not fit into a byte[]", encodedLength));
+    }
+
+    final var out = new byte[(int) encodedLength];
+    writeTo(out, 0);
+    return out;
+  }
+
+  private int writeTo(final byte[] out, final int offset) {
+    var position = offset;
+    for (int i = 0; i < size; i++) {
+      if (tags[i] != null) {
+        System.arraycopy(tags[i], 0, out, position, tags[i].length);
+        position = writeLength(out, position + tags[i].length, lengths[i]);
+      }
+
+      if (values[i] != null) {
+        final var valueLength = valueLength(i);
+        System.arraycopy(values[i], valueOffsets[i], out, position, valueLength);
+        position += valueLength;
+      }
+    }
+
+    return position;
+  }
+
+  /**
+   * Write all TLVs directly to the output stream. Many small writes are issued, so the stream should be buffered.
+   *
+   * @param outputStream destination
+   * @throws IOException if writing fails
+   */
+  void writeTo(final OutputStream outputStream) throws IOException {
+    final var lengthOctets = new byte[5];
+    for (int i = 0; i < size; i++) {
+      if (tags[i] != null) {
+        outputStream.write(tags[i]);
+        outputStream.write(lengthOctets, 0, writeLength(lengthOctets, 0, lengths[i]));
+      }
+
+      if (values[i] != null) {
+        outputStream.write(values[i], valueOffsets[i], valueLength(i));
+      }
+    }
+  }
+
+  /**
+   * Write all TLVs directly into the buffer, starting at its position.
+   *
+   * @param byteBuffer destination
+   * @throws AsnEncodeException if the buffer does not have enough space, in which case nothing is written and the position is unchanged
+   */
+  void writeTo(final ByteBuffer byteBuffer) {
+    if (encodedLength > byteBuffer.remaining()) {
+      throw new AsnEncodeException(String.format("Encoded data needs %d bytes, but the buffer has only %d remaining", encodedLength, byteBuffer.remaining()));
+    }
+
+    if (byteBuffer.hasArray()) {
+      final var position = byteBuffer.position();
+      final var end = writeTo(byteBuffer.array(), byteBuffer.arrayOffset() + position);
+      byteBuffer.position(end - byteBuffer.arrayOffset());
+      return;
+    }
+
+    final var lengthOctets = new byte[5];
+    for (int i = 0; i < size; i++) {
+      if (tags[i] != null) {
+        byteBuffer.put(tags[i]);
+        byteBuffer.put(lengthOctets, 0, writeLength(lengthOctets, 0, lengths[i]));
+      }
+
+      if (values[i] != null) {
+        byteBuffer.put(values[i], valueOffsets[i], valueLength(i));
+      }
+    }
+  }
+
+  private void ensureCapacity() {
+    if (size == tags.length) {
+      final var capacity = size * 2;
+      tags = Arrays.copyOf(tags, capacity);
+      values = Arrays.copyOf(values, capacity);
+      valueOffsets = Arrays.copyOf(valueOffsets, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+    }
+  }
+
+  private static int writeLength(final byte[] out, final int offset, final long length) {
+    if (length == INDEFINITE_LENGTH) {
+      out[offset] = (byte) BerBitMask.MOST_SIGNIFICANT_BIT;
+      return offset + 1;
+    }
+
+    return BerUtils.writeLength(out, offset, (int) length);
+  }
+
+  // only primitive and already encoded TLVs have values, their lengths are the value lengths
+  private int valueLength(final int index) {
+    return (int) lengths[index];
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.encoder;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Encodes a range of independent elements into its own {@link BerTlvBuffer}, splitting it between fork/join tasks.
+ * <p>
+ * Buffers of split ranges are appended in element order, so the result is identical to encoding the elements sequentially.
+ */
+class RangeEncodeTask extends RecursiveTask<BerTlvBuffer> {
+  private final Object[] elements;
+  private final int from;
+  private final int to;
+  private final int chunkSize;
+  private final boolean indefiniteLength;
+  private final ElementEncoder elementEncoder;
+
+  /**
+   * @param elements         elements to encode
+   * @param from             first element of the range, inclusive
+   * @param to               last element of the range, exclusive
+   * @param chunkSize        number of elements up to which the range is encoded by a single task
+   * @param indefiniteLength true if constructed TLVs should be written with an indefinite length
+   * @param elementEncoder   encodes a single element into a buffer
+   */
+  RangeEncodeTask(final Object[] elements, final int from, final int to, final int chunkSize, final boolean indefiniteLength,
+                  final ElementEncoder elementEncoder) {
+    this.elements = elements;
+    this.from = from;
+    this.to = to;
+    this.chunkSize = chunkSize;
+    this.indefiniteLength = indefiniteLength;
+    this.elementEncoder = elementEncoder;
+  }
+
+  @Override
+  protected BerTlvBuffer compute() {
+    if (to - from <= chunkSize) {
+      final var tlvBuffer = new BerTlvBuffer(indefiniteLength);
+      for (var i = from; i < to; i++) {
+        elementEncoder.encode(elements[i], tlvBuffer);
+      }
+      return tlvBuffer;
+    }
+
+    final var middle = (from + to) >>> 1;
+    final var left = new RangeEncodeTask(elements, from, middle, chunkSize, indefiniteLength, elementEncoder);
+    final var right = new RangeEncodeTask(elements, middle, to, chunkSize, indefiniteLength, elementEncoder);
+    left.fork();
+
+    final var rightBuffer = right.compute();
+    final var leftBuffer = left.join();
+    leftBuffer.append(rightBuffer);
+    return leftBuffer;
+  }
+
+  interface ElementEncoder {
+    void encode(Object element, BerTlvBuffer tlvBuffer);
+  }
+}
@@ -25,17 +25,127 @@
 
 package com.github.alturkovic.asn.exception;
 
+import com.github.alturkovic.asn.tag.Tag;
+import com.github.alturkovic.asn.util.HexUtils;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Thrown when BER data cannot be decoded.
+ * <p>
+ * Failures inside the data are located by the offset in the decoded buffer, the path of tags from the record to the failing element
+ * and a bounded window of bytes around the offset. Enclosing structures only add their tag to the path as the exception unwinds,
+ * and the message is formatted once when it is first requested.
+ */
 public class AsnDecodeException extends AsnException {
+  // number of bytes kept on each side of the failure offset
+  private static final int WINDOW_SIZE = 16;
+
+  private final int offset;
+  private final byte[] window;
+  private final int windowOffset;
+  private final Deque<Tag> tagPath = new ArrayDeque<>();
+  private String message;
 
   public AsnDecodeException(final String msg) {
-    super(msg);
+    this(msg, null);
   }
 
   public AsnDecodeException(final Exception e) {
     super(e);
+    this.offset = -1;
+    this.window = null;
+    this.windowOffset = -1;
   }
 
   public AsnDecodeException(final String msg, final Exception e) {
     super(msg, e);
+    this.offset = -1;
+    this.window = null;
+    this.windowOffset = -1;
+  }
+
+  /**
+   * @param msg    reason of the failure
+   * @param buffer decoded buffer, only a bounded window around the offset is kept
+   * @param offset offset of the failure in the buffer
+   * @param e      cause of the failure
+   */
+  public AsnDecodeException(final String msg, final byte[] buffer, final int offset, final Exception e) {
+    super(msg, e);
+    this.offset = offset;
+    this.windowOffset = Math.max(0, Math.min(offset, buffer.length) - WINDOW_SIZE);
+    this.window = Arrays.copyOfRange(buffer, windowOffset, Math.min(buffer.length, Math.max(offset, 0) + WINDOW_SIZE));
+  }
+
+  /**
+   * Add the tag of an enclosing element to the start of the tag path.
+   *
+   * @param tag tag of the enclosing element
+   * @return this exception, so that it can be rethrown
+   */
+  public AsnDecodeException addPathElement(final Tag tag) {
+    tagPath.addFirst(tag);
+    message = null;
+    return this;
+  }
+
+  /**
+   * @return offset of the failure in the decoded buffer or -1 if it is not known
+   */
+  public int getOffset() {
+    return offset;
+  }
+
+  /**
+   * @return tags of the elements enclosing the failure, starting with the record tag
+   */
+  public List<Tag> getTagPath() {
+    return List.copyOf(tagPath);
+  }
+
+  /**
+   * @return reason of the failure without its location
+   */
+  public String getReason() {
+    return super.getMessage();
+  }
+
+  @Override
+  public String getMessage() {
+    if (offset < 0 && tagPath.isEmpty()) {
+      return super.getMessage();
+    }
+
+    if (message == null) {
+      message = formatMessage();
+    }
+    return message;
+  }
+
+  private String formatMessage() {
+    final var builder = new StringBuilder(String.valueOf(super.getMessage()));
+
+    if (!tagPath.isEmpty()) {
+      builder.append(", path: ");
+      var first = true;
+      for (final var tag : tagPath) {
+        if (!first) {
+          builder.append('/');
+        }
+        builder.append(tag.getType()).append('[').append(tag.getValue()).append(']');
+        first = false;
+      }
+    }
+
+    if (offset >= 0) {
+      builder.append(", offset: ").append(offset)
+          .append(", data at ").append(windowOffset).append(": ")
+          .append(HexUtils.encode(window));
+    }
+
+    return builder.toString();
   }
 }
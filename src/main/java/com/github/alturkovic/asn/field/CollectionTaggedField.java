@@ -27,6 +27,7 @@ package com.github.alturkovic.asn.field;
 
 import com.github.alturkovic.asn.converter.AsnConverter;
 import com.github.alturkovic.asn.tag.Tag;
+import com.github.alturkovic.asn.util.BerUtils;
 import java.lang.reflect.Field;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -40,6 +41,9 @@ public class CollectionTaggedField extends TaggedField {
   private final Class<?> type;
   private final Tag elementTag;
   private final Class<? extends AsnConverter<?, ?>> converter;
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final byte[] encodedElementTag;
 
   public CollectionTaggedField(final int fieldPosition, final Tag tag, final Field field, final boolean structured, final Class<?> type, final Tag elementTag,
                                final Class<? extends AsnConverter<?, ?>> converter) {
@@ -48,6 +52,7 @@ public class CollectionTaggedField extends TaggedField {
     this.type = type;
     this.elementTag = elementTag;
     this.converter = converter;
+    this.encodedElementTag = BerUtils.convert(elementTag);
   }
 
   @Override
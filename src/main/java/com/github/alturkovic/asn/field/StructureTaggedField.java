@@ -35,9 +35,16 @@ import lombok.ToString;
 @EqualsAndHashCode(callSuper = true)
 @ToString(callSuper = true)
 public class StructureTaggedField extends TaggedField {
+  // type of the structure, differs from the field type for lazy fields
+  private final Class<?> type;
 
   public StructureTaggedField(final int fieldPosition, final Tag tag, final Field field) {
+    this(fieldPosition, tag, field, field.getType());
+  }
+
+  public StructureTaggedField(final int fieldPosition, final Tag tag, final Field field, final Class<?> type) {
     super(fieldPosition, tag, field);
+    this.type = type;
   }
 
   @Override
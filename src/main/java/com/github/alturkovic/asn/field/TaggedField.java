@@ -26,14 +26,29 @@
 package com.github.alturkovic.asn.field;
 
 import com.github.alturkovic.asn.tag.Tag;
+import com.github.alturkovic.asn.util.BerUtils;
+import com.github.alturkovic.asn.util.ClassUtils;
 import java.lang.reflect.Field;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
 public abstract class TaggedField implements Comparable<TaggedField> {
   private final int fieldPosition; // helps keep the class defined order when encoding
   private final Tag tag;
   private final Field field;
+  // identifier octets of the tag, encoded once so that encoding a field only copies them
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final byte[] encodedTag;
+
+  protected TaggedField(final int fieldPosition, final Tag tag, final Field field) {
+    this.fieldPosition = fieldPosition;
+    this.tag = tag;
+    this.field = field;
+    this.encodedTag = BerUtils.convert(tag);
+  }
 
   public boolean isPrimitive() {
     return false;
@@ -47,6 +62,13 @@ public abstract class TaggedField implements Comparable<TaggedField> {
     return false;
   }
 
+  /**
+   * @return true if the field value is wrapped in {@link com.github.alturkovic.asn.Lazy}
+   */
+  public boolean isLazy() {
+    return ClassUtils.isLazy(field);
+  }
+
   @Override
   public int compareTo(final TaggedField tf) {
     return this.fieldPosition > tf.fieldPosition ? 1 : -1;
@@ -49,4 +49,14 @@ public interface FieldAccessor {
    * @return value of the field
    */
   <T> T getFieldValue(Object instance, Field field);
+
+  /**
+   * Resolve a reusable handle for the field, so that it can be accessed without repeated lookups.
+   *
+   * @param field field to access
+   * @return handle for the field
+   */
+  default FieldHandle handle(final Field field) {
+    return new FieldAccessorHandle(this, field);
+  }
 }
@@ -23,34 +23,26 @@
  *
  */
 
-package com.github.alturkovic.asn.support;
+package com.github.alturkovic.asn.field.accessor;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.lang.reflect.Field;
 import lombok.AllArgsConstructor;
 
 /**
- * Keeps count of instances of the same element.
- *
- * @param <T> element type
+ * Adapts any {@link FieldAccessor} to a {@link FieldHandle} for a single field.
  */
 @AllArgsConstructor
-public class Counter<T> {
-  private final Map<T, AtomicInteger> internalCounterMap;
+class FieldAccessorHandle implements FieldHandle {
+  private final FieldAccessor fieldAccessor;
+  private final Field field;
 
-  public Counter() {
-    this(new HashMap<>());
+  @Override
+  public void set(final Object instance, final Object value) {
+    fieldAccessor.setFieldValue(instance, field, value);
   }
 
-  /**
-   * Returns the count of elements that were added for the given key.
-   *
-   * @param key key
-   * @return count
-   */
-  public int count(final T key) {
-    return internalCounterMap.computeIfAbsent(key, k -> new AtomicInteger())
-        .getAndIncrement();
+  @Override
+  public <T> T get(final Object instance) {
+    return fieldAccessor.getFieldValue(instance, field);
   }
 }
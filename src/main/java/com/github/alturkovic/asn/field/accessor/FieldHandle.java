@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.field.accessor;
+
+/**
+ * Access to a single field, resolved once and reused for every instance.
+ * Primitive variants allow specialized implementations to avoid boxing, by default they delegate to {@link #set(Object, Object)}
+ * and {@link #get(Object)}.
+ */
+public interface FieldHandle {
+  /**
+   * Modify field value inside of an object instance.
+   *
+   * @param instance object to mutate
+   * @param value    new value of the field
+   */
+  void set(Object instance, Object value);
+
+  /**
+   * Get the value of an objects field.
+   *
+   * @param instance object to access
+   * @param <T>      type of value
+   * @return value of the field
+   */
+  <T> T get(Object instance);
+
+  default void setInt(final Object instance, final int value) {
+    set(instance, value);
+  }
+
+  default void setLong(final Object instance, final long value) {
+    set(instance, value);
+  }
+
+  default void setShort(final Object instance, final short value) {
+    set(instance, value);
+  }
+
+  default void setBoolean(final Object instance, final boolean value) {
+    set(instance, value);
+  }
+
+  default int getInt(final Object instance) {
+    return this.<Integer>get(instance);
+  }
+
+  default long getLong(final Object instance) {
+    return this.<Long>get(instance);
+  }
+
+  default short getShort(final Object instance) {
+    return this.<Short>get(instance);
+  }
+
+  default boolean getBoolean(final Object instance) {
+    return this.<Boolean>get(instance);
+  }
+}
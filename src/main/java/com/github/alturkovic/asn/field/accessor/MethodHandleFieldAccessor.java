@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.field.accessor;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accesses fields through handles resolved once per field.
+ * Unlike {@link DirectFieldAccessor}, there are no access checks on every call and primitive fields can be accessed without boxing
+ * through the {@link FieldHandle} returned by {@link #handle(Field)}.
+ * <p>
+ * Instance fields are read and written at their offset in the object, which the JIT compiles into plain memory accesses.
+ * When offsets are not available, fields are accessed through {@link java.lang.invoke.MethodHandle}s.
+ * Accessor methods of the class are never called.
+ */
+public class MethodHandleFieldAccessor implements FieldAccessor {
+  private final Map<Field, FieldHandle> handles = new ConcurrentHashMap<>();
+
+  @Override
+  public void setFieldValue(final Object instance, final Field field, final Object value) {
+    handle(field).set(instance, value);
+  }
+
+  @Override
+  public <T> T getFieldValue(final Object instance, final Field field) {
+    return handle(field).get(instance);
+  }
+
+  @Override
+  public FieldHandle handle(final Field field) {
+    final var handle = handles.get(field);
+    if (handle != null) {
+      return handle;
+    }
+
+    return handles.computeIfAbsent(field, MethodHandleFieldAccessor::createHandle);
+  }
+
+  private static FieldHandle createHandle(final Field field) {
+    final var handle = UnsafeFieldHandle.of(field);
+    return handle != null ? handle : new MethodHandleFieldHandle(field);
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.field.accessor;
+
+import com.github.alturkovic.asn.exception.AsnAccessException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * {@link FieldHandle} backed by getter and setter method handles, adapted to exact types once so that every call is an {@code invokeExact}.
+ */
+class MethodHandleFieldHandle implements FieldHandle {
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Field field;
+  private final Class<?> type;
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  // only present for primitive fields, typed exactly as the field to avoid boxing
+  private final MethodHandle primitiveGetter;
+  private final MethodHandle primitiveSetter;
+
+  MethodHandleFieldHandle(final Field field) {
+    this.field = field;
+    this.type = field.getType();
+
+    try {
+      field.setAccessible(true);
+
+      final var lookup = MethodHandles.lookup();
+      final var rawGetter = lookup.unreflectGetter(field);
+      final var rawSetter = lookup.unreflectSetter(field);
+
+      getter = rawGetter.asType(GETTER_TYPE);
+      setter = rawSetter.asType(SETTER_TYPE);
+
+      if (type.isPrimitive()) {
+        primitiveGetter = rawGetter.asType(MethodType.methodType(type, Object.class));
+        primitiveSetter = rawSetter.asType(MethodType.methodType(void.class, Object.class, type));
+      } else {
+        primitiveGetter = null;
+        primitiveSetter = null;
+      }
+    } catch (final IllegalAccessException | RuntimeException e) {
+      throw new AsnAccessException(String.format("Cannot create method handles for field %s", field), e);
+    }
+  }
+
+  @Override
+  public void set(final Object instance, final Object value) {
+    try {
+      setter.invokeExact(instance, value);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  @Override
+  public <T> T get(final Object instance) {
+    try {
+      //noinspection unchecked
+      return (T) (Object) getter.invokeExact(instance);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  @Override
+  public void setInt(final Object instance, final int value) {
+    if (type != int.class) {
+      set(instance, value);
+      return;
+    }
+
+    try {
+      primitiveSetter.invokeExact(instance, value);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  @Override
+  public void setLong(final Object instance, final long value) {
+    if (type != long.class) {
+      set(instance, value);
+      return;
+    }
+
+    try {
+      primitiveSetter.invokeExact(instance, value);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  @Override
+  public void setShort(final Object instance, final short value) {
+    if (type != short.class) {
+      set(instance, value);
+      return;
+    }
+
+    try {
+      primitiveSetter.invokeExact(instance, value);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  @Override
+  public void setBoolean(final Object instance, final boolean value) {
+    if (type != boolean.class) {
+      set(instance, value);
+      return;
+    }
+
+    try {
+      primitiveSetter.invokeExact(instance, value);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  @Override
+  public int getInt(final Object instance) {
+    if (type != int.class) {
+      return this.<Integer>get(instance);
+    }
+
+    try {
+      return (int) primitiveGetter.invokeExact(instance);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  @Override
+  public long getLong(final Object instance) {
+    if (type != long.class) {
+      return this.<Long>get(instance);
+    }
+
+    try {
+      return (long) primitiveGetter.invokeExact(instance);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  @Override
+  public short getShort(final Object instance) {
+    if (type != short.class) {
+      return this.<Short>get(instance);
+    }
+
+    try {
+      return (short) primitiveGetter.invokeExact(instance);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  @Override
+  public boolean getBoolean(final Object instance) {
+    if (type != boolean.class) {
+      return this.<Boolean>get(instance);
+    }
+
+    try {
+      return (boolean) primitiveGetter.invokeExact(instance);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw accessException(t);
+    }
+  }
+
+  // errors are rethrown before, so only exceptions are left
+  private AsnAccessException accessException(final Throwable t) {
+    return new AsnAccessException(String.format("Cannot access field %s", field), (Exception) t);
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.field.accessor;
+
+import com.github.alturkovic.asn.exception.AsnAccessException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import sun.misc.Unsafe;
+
+/**
+ * {@link FieldHandle} reading and writing the field at its offset in the object, which the JIT compiles into a plain memory access.
+ * <p>
+ * Method handles kept in instance fields are not constants, so the JIT cannot inline through them, and
+ * {@link java.lang.invoke.LambdaMetafactory} cannot bind to fields. Offsets bind to the field itself, so no methods of the
+ * accessed class are ever called. Because there are no checks on memory access, instance and value types are checked on every call.
+ */
+final class UnsafeFieldHandle implements FieldHandle {
+  // null if the runtime does not provide it, fields are then accessed through method handles
+  private static final Unsafe UNSAFE = loadUnsafe();
+
+  private final Field field;
+  private final Class<?> declaringClass;
+  private final Class<?> type;
+  private final long offset;
+  private final boolean isVolatile;
+
+  private UnsafeFieldHandle(final Field field) {
+    this.field = field;
+    this.declaringClass = field.getDeclaringClass();
+    this.type = field.getType();
+    this.offset = UNSAFE.objectFieldOffset(field);
+    this.isVolatile = Modifier.isVolatile(field.getModifiers());
+  }
+
+  /**
+   * @param field field to access
+   * @return handle for the field, or null if offsets are not available for it
+   */
+  static UnsafeFieldHandle of(final Field field) {
+    if (UNSAFE == null || Modifier.isStatic(field.getModifiers())) {
+      return null;
+    }
+
+    try {
+      return new UnsafeFieldHandle(field);
+    } catch (final RuntimeException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public void set(final Object instance, final Object value) {
+    checkInstance(instance);
+
+    if (type.isPrimitive()) {
+      setPrimitive(instance, value);
+      return;
+    }
+
+    if (value != null && !type.isInstance(value)) {
+      throw new AsnAccessException(String.format("Cannot set field %s to %s", field, value.getClass().getName()));
+    }
+
+    if (isVolatile) {
+      UNSAFE.putObjectVolatile(instance, offset, value);
+    } else {
+      UNSAFE.putObject(instance, offset, value);
+    }
+  }
+
+  @Override
+  public <T> T get(final Object instance) {
+    checkInstance(instance);
+
+    final Object value;
+    if (type == int.class) {
+      value = readInt(instance);
+    } else if (type == long.class) {
+      value = readLong(instance);
+    } else if (type == short.class) {
+      value = readShort(instance);
+    } else if (type == boolean.class) {
+      value = readBoolean(instance);
+    } else if (type == byte.class) {
+      value = isVolatile ? UNSAFE.getByteVolatile(instance, offset) : UNSAFE.getByte(instance, offset);
+    } else if (type == char.class) {
+      value = isVolatile ? UNSAFE.getCharVolatile(instance, offset) : UNSAFE.getChar(instance, offset);
+    } else if (type == float.class) {
+      value = isVolatile ? UNSAFE.getFloatVolatile(instance, offset) : UNSAFE.getFloat(instance, offset);
+    } else if (type == double.class) {
+      value = isVolatile ? UNSAFE.getDoubleVolatile(instance, offset) : UNSAFE.getDouble(instance, offset);
+    } else {
+      value = isVolatile ? UNSAFE.getObjectVolatile(instance, offset) : UNSAFE.getObject(instance, offset);
+    }
+
+    //noinspection unchecked
+    return (T) value;
+  }
+
+  @Override
+  public void setInt(final Object instance, final int value) {
+    if (type != int.class) {
+      set(instance, value);
+      return;
+    }
+
+    checkInstance(instance);
+    writeInt(instance, value);
+  }
+
+  @Override
+  public void setLong(final Object instance, final long value) {
+    if (type != long.class) {
+      set(instance, value);
+      return;
+    }
+
+    checkInstance(instance);
+    writeLong(instance, value);
+  }
+
+  @Override
+  public void setShort(final Object instance, final short value) {
+    if (type != short.class) {
+      set(instance, value);
+      return;
+    }
+
+    checkInstance(instance);
+    writeShort(instance, value);
+  }
+
+  @Override
+  public void setBoolean(final Object instance, final boolean value) {
+    if (type != boolean.class) {
+      set(instance, value);
+      return;
+    }
+
+    checkInstance(instance);
+    writeBoolean(instance, value);
+  }
+
+  @Override
+  public int getInt(final Object instance) {
+    if (type != int.class) {
+      return this.<Integer>get(instance);
+    }
+
+    checkInstance(instance);
+    return readInt(instance);
+  }
+
+  @Override
+  public long getLong(final Object instance) {
+    if (type != long.class) {
+      return this.<Long>get(instance);
+    }
+
+    checkInstance(instance);
+    return readLong(instance);
+  }
+
+  @Override
+  public short getShort(final Object instance) {
+    if (type != short.class) {
+      return this.<Short>get(instance);
+    }
+
+    checkInstance(instance);
+    return readShort(instance);
+  }
+
+  @Override
+  public boolean getBoolean(final Object instance) {
+    if (type != boolean.class) {
+      return this.<Boolean>get(instance);
+    }
+
+    checkInstance(instance);
+    return readBoolean(instance);
+  }
+
+  // boxed values are unboxed with the same conversions as Field.set, except widening
+  private void setPrimitive(final Object instance, final Object value) {
+    if (type == int.class && value instanceof Integer) {
+      writeInt(instance, (Integer) value);
+    } else if (type == long.class && value instanceof Long) {
+      writeLong(instance, (Long) value);
+    } else if (type == short.class && value instanceof Short) {
+      writeShort(instance, (Short) value);
+    } else if (type == boolean.class && value instanceof Boolean) {
+      writeBoolean(instance, (Boolean) value);
+    } else if (type == byte.class && value instanceof Byte) {
+      if (isVolatile) {
+        UNSAFE.putByteVolatile(instance, offset, (Byte) value);
+      } else {
+        UNSAFE.putByte(instance, offset, (Byte) value);
+      }
+    } else if (type == char.class && value instanceof Character) {
+      if (isVolatile) {
+        UNSAFE.putCharVolatile(instance, offset, (Character) value);
+      } else {
+        UNSAFE.putChar(instance, offset, (Character) value);
+      }
+    } else if (type == float.class && value instanceof Float) {
+      if (isVolatile) {
+        UNSAFE.putFloatVolatile(instance, offset, (Float) value);
+      } else {
+        UNSAFE.putFloat(instance, offset, (Float) value);
+      }
+    } else if (type == double.class && value instanceof Double) {
+      if (isVolatile) {
+        UNSAFE.putDoubleVolatile(instance, offset, (Double) value);
+      } else {
+        UNSAFE.putDouble(instance, offset, (Double) value);
+      }
+    } else {
+      throw new AsnAccessException(String.format("Cannot set field %s to %s", field, value == null ? null : value.getClass().getName()));
+    }
+  }
+
+  private int readInt(final Object instance) {
+    return isVolatile ? UNSAFE.getIntVolatile(instance, offset) : UNSAFE.getInt(instance, offset);
+  }
+
+  private long readLong(final Object instance) {
+    return isVolatile ? UNSAFE.getLongVolatile(instance, offset) : UNSAFE.getLong(instance, offset);
+  }
+
+  private short readShort(final Object instance) {
+    return isVolatile ? UNSAFE.getShortVolatile(instance, offset) : UNSAFE.getShort(instance, offset);
+  }
+
+  private boolean readBoolean(final Object instance) {
+    return isVolatile ? UNSAFE.getBooleanVolatile(instance, offset) : UNSAFE.getBoolean(instance, offset);
+  }
+
+  private void writeInt(final Object instance, final int value) {
+    if (isVolatile) {
+      UNSAFE.putIntVolatile(instance, offset, value);
+    } else {
+      UNSAFE.putInt(instance, offset, value);
+    }
+  }
+
+  private void writeLong(final Object instance, final long value) {
+    if (isVolatile) {
+      UNSAFE.putLongVolatile(instance, offset, value);
+    } else {
+      UNSAFE.putLong(instance, offset, value);
+    }
+  }
+
+  private void writeShort(final Object instance, final short value) {
+    if (isVolatile) {
+      UNSAFE.putShortVolatile(instance, offset, value);
+    } else {
+      UNSAFE.putShort(instance, offset, value);
+    }
+  }
+
+  private void writeBoolean(final Object instance, final boolean value) {
+    if (isVolatile) {
+      UNSAFE.putBooleanVolatile(instance, offset, value);
+    } else {
+      UNSAFE.putBoolean(instance, offset, value);
+    }
+  }
+
+  // an offset applied to an object of another class, or to null, would access unrelated memory
+  private void checkInstance(final Object instance) {
+    if (!declaringClass.isInstance(instance)) {
+      throw new AsnAccessException(String.format("Cannot access field %s of %s", field, instance == null ? null : instance.getClass().getName()));
+    }
+  }
+
+  private static Unsafe loadUnsafe() {
+    try {
+      final var theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      return (Unsafe) theUnsafe.get(null);
+    } catch (final ReflectiveOperationException | RuntimeException | LinkageError e) {
+      return null;
+    }
+  }
+}
@@ -59,4 +59,22 @@ public abstract class AbstractInputStreamReader {
 
     return result;
   }
+
+  protected void skipBytes(final InputStream inputStream, final int bytesToSkip) {
+    var remaining = (long) bytesToSkip;
+    try {
+      while (remaining > 0) {
+        final var skipped = inputStream.skip(remaining);
+        if (skipped > 0) {
+          remaining -= skipped;
+        } else {
+          // skip gives no guarantees at the end of the stream, a read tells if it was reached
+          checkClosure(inputStream.read());
+          remaining--;
+        }
+      }
+    } catch (final IOException e) {
+      throw new AsnReadException(e);
+    }
+  }
 }
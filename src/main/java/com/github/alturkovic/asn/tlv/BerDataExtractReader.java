@@ -25,50 +25,68 @@
 
 package com.github.alturkovic.asn.tlv;
 
+import com.github.alturkovic.asn.exception.AsnReadException;
 import com.github.alturkovic.asn.tag.Tag;
 import com.github.alturkovic.asn.util.BerUtils;
-import java.io.ByteArrayInputStream;
+import com.github.alturkovic.asn.util.HexUtils;
 import java.io.InputStream;
 import java.util.List;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 
+/**
+ * Reads top-level TLVs until one matches the first tag of the path and returns the TLV at the end of the path.
+ * Top-level TLVs with a different tag are skipped by their length without being copied, a matching TLV which does not contain
+ * the rest of the path fails with an {@link AsnReadException}.
+ * <p>
+ * Nested TLVs are matched in place by a {@link BerPathExtractor}, use it directly to extract multiple paths in a single pass.
+ */
 @Data
-@AllArgsConstructor
 public class BerDataExtractReader implements TlvDataReader {
   private final List<Tag> tags;
   private final BerTagReader tagReader;
   private final BerLengthReader lengthReader;
   private final BerValueReader valueReader;
+  // path below the top-level TLV, null if the path only has the top-level tag
+  private final BerPathExtractor nestedPathExtractor;
+  // reads whole top-level TLVs, including those with an indefinite length
+  private final BerDataReader recordReader;
 
   public BerDataExtractReader(final List<Tag> tags) {
+    this(tags, new BerTagReader(), new BerLengthReader(), new BerValueReader());
+  }
+
+  public BerDataExtractReader(final List<Tag> tags, final BerTagReader tagReader, final BerLengthReader lengthReader, final BerValueReader valueReader) {
     this.tags = tags;
-    this.tagReader = new BerTagReader();
-    this.lengthReader = new BerLengthReader();
-    this.valueReader = new BerValueReader();
+    this.tagReader = tagReader;
+    this.lengthReader = lengthReader;
+    this.valueReader = valueReader;
+    this.nestedPathExtractor = tags.size() > 1 ? BerPathExtractor.of(tags.subList(1, tags.size())) : null;
+    this.recordReader = new BerDataReader(tagReader, lengthReader, valueReader);
   }
 
   @Override
   public BerData readNext(final InputStream inputStream) {
-    byte[] tag;
-    byte[] length;
-    byte[] value;
+    while (true) {
+      final var tag = tagReader.read(inputStream);
 
-    var depth = 0;
-    var stream = inputStream;
-    do {
-      tag = tagReader.read(stream);
-      length = lengthReader.read(stream);
-      value = valueReader.read(stream, BerUtils.parseLength(length));
+      if (!BerUtils.parseTag(tag).equals(tags.get(0))) {
+        recordReader.skipNext(inputStream, tag);
+        continue;
+      }
+
+      final var record = recordReader.readNext(inputStream, tag);
+      if (nestedPathExtractor == null) {
+        return record;
+      }
 
-      final var parsedTag = BerUtils.parseTag(tag);
+      final var value = record.getValue();
 
-      if (parsedTag.equals(tags.get(depth))) {
-        depth++;
-        stream = new ByteArrayInputStream(value);
+      final var extracted = nestedPathExtractor.extract(value, 0, value.length)[0];
+      if (extracted == null) {
+        throw new AsnReadException(String.format("TLV %s does not contain the path %s", HexUtils.encode(tag), tags));
       }
-    } while (depth < tags.size());
 
-    return new BerData(tag, length, value);
+      return extracted.toBerData();
+    }
   }
 }
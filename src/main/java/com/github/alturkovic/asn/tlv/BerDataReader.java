@@ -25,8 +25,14 @@
 
 package com.github.alturkovic.asn.tlv;
 
+import com.github.alturkovic.asn.exception.AsnParseException;
+import com.github.alturkovic.asn.exception.AsnReadException;
+import com.github.alturkovic.asn.util.BerBitMask;
 import com.github.alturkovic.asn.util.BerUtils;
+import com.github.alturkovic.asn.util.HexUtils;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.util.Arrays;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -36,18 +42,167 @@ public class BerDataReader implements TlvDataReader {
   private final BerTagReader tagReader;
   private final BerLengthReader lengthReader;
   private final BerValueReader valueReader;
+  private final int maxIndefiniteDepth;
 
   public BerDataReader() {
-    this.tagReader = new BerTagReader();
-    this.lengthReader = new BerLengthReader();
-    this.valueReader = new BerValueReader();
+    this(new BerTagReader(), new BerLengthReader(), new BerValueReader());
   }
 
+  public BerDataReader(final BerTagReader tagReader, final BerLengthReader lengthReader, final BerValueReader valueReader) {
+    this(tagReader, lengthReader, valueReader, BerSliceReader.DEFAULT_MAX_INDEFINITE_DEPTH);
+  }
+
+  /**
+   * Read the next TLV. Constructed TLVs with an indefinite length are read TLV by TLV until their end-of-contents octets
+   * and returned with a definite length, so that the value can be used without further conversions.
+   */
   @Override
   public BerData readNext(final InputStream inputStream) {
-    final var tag = tagReader.read(inputStream);
+    return readNext(inputStream, tagReader.read(inputStream));
+  }
+
+  // reads the rest of a TLV whose tag was already read
+  BerData readNext(final InputStream inputStream, final byte[] tag) {
     final var length = lengthReader.read(inputStream);
+
+    if (lengthReader.isIndefinite(length)) {
+      checkConstructed(tag);
+
+      final var value = readIndefiniteValue(inputStream);
+      return new BerData(tag, BerUtils.encodeLength(value.length), value);
+    }
+
     final var value = valueReader.read(inputStream, BerUtils.parseLength(length));
     return new BerData(tag, length, value);
   }
+
+  /**
+   * Skip the rest of a TLV whose tag was already read. Definite length values are skipped in the stream without being read,
+   * indefinite length values are skipped TLV by TLV until their end-of-contents octets.
+   */
+  void skipNext(final InputStream inputStream, final byte[] tag) {
+    final var length = lengthReader.read(inputStream);
+
+    if (lengthReader.isIndefinite(length)) {
+      checkConstructed(tag);
+
+      skipIndefiniteValue(inputStream);
+      return;
+    }
+
+    valueReader.skip(inputStream, BerUtils.parseLength(length));
+  }
+
+  private void skipIndefiniteValue(final InputStream inputStream) {
+    // number of open TLVs, including the one whose value is skipped
+    var depth = 1;
+    while (depth > 0) {
+      final var tag = tagReader.read(inputStream);
+      final var length = lengthReader.read(inputStream);
+
+      if (isEndOfContents(tag, length)) {
+        depth--;
+      } else if (lengthReader.isIndefinite(length)) {
+        checkConstructed(tag);
+        checkDepth(tag, ++depth);
+      } else {
+        valueReader.skip(inputStream, BerUtils.parseLength(length));
+      }
+    }
+  }
+
+  // nested indefinite lengths are resolved in a single pass without recursion: contents are copied once, without the length octets
+  // of nested indefinite TLVs, which are inserted after their tags once their end-of-contents octets are read
+  private byte[] readIndefiniteValue(final InputStream inputStream) {
+    final var contents = new ByteArrayOutputStream();
+    // offsets in contents and definite length octets of nested indefinite TLVs, in the order in which they were opened
+    var insertOffsets = new int[16];
+    var insertedLengths = new byte[16][];
+    var nestedCount = 0;
+    // for every open TLV: index of its length octets, offset of its value in contents and length octets inserted into its value
+    var openIndices = new int[16];
+    var openOffsets = new int[16];
+    var openInserted = new int[16];
+    var depth = 0;
+
+    while (true) {
+      final var tag = tagReader.read(inputStream);
+      final var length = lengthReader.read(inputStream);
+
+      if (isEndOfContents(tag, length)) {
+        final var valueLength = contents.size() - openOffsets[depth] + openInserted[depth];
+        if (depth == 0) {
+          return insertLengths(contents.toByteArray(), valueLength, insertOffsets, insertedLengths, nestedCount);
+        }
+
+        final var lengthOctets = BerUtils.encodeLength(valueLength);
+        insertedLengths[openIndices[depth]] = lengthOctets;
+        final var inserted = openInserted[depth] + lengthOctets.length;
+        openInserted[--depth] += inserted;
+        continue;
+      }
+
+      contents.writeBytes(tag);
+      if (lengthReader.isIndefinite(length)) {
+        checkConstructed(tag);
+        checkDepth(tag, ++depth + 1);
+
+        if (depth == openIndices.length) {
+          openIndices = Arrays.copyOf(openIndices, depth * 2);
+          openOffsets = Arrays.copyOf(openOffsets, depth * 2);
+          openInserted = Arrays.copyOf(openInserted, depth * 2);
+        }
+        if (nestedCount == insertOffsets.length) {
+          insertOffsets = Arrays.copyOf(insertOffsets, nestedCount * 2);
+          insertedLengths = Arrays.copyOf(insertedLengths, nestedCount * 2);
+        }
+
+        insertOffsets[nestedCount] = contents.size();
+        openIndices[depth] = nestedCount++;
+        openOffsets[depth] = contents.size();
+        openInserted[depth] = 0;
+      } else {
+        contents.writeBytes(length);
+        contents.writeBytes(valueReader.read(inputStream, BerUtils.parseLength(length)));
+      }
+    }
+  }
+
+  private static byte[] insertLengths(final byte[] contents, final int valueLength, final int[] insertOffsets, final byte[][] insertedLengths, final int count) {
+    if (count == 0) {
+      return contents;
+    }
+
+    final var value = new byte[valueLength];
+    var from = 0;
+    var to = 0;
+    for (var i = 0; i < count; i++) {
+      final var copied = insertOffsets[i] - from;
+      System.arraycopy(contents, from, value, to, copied);
+      to += copied;
+      System.arraycopy(insertedLengths[i], 0, value, to, insertedLengths[i].length);
+      to += insertedLengths[i].length;
+      from = insertOffsets[i];
+    }
+    System.arraycopy(contents, from, value, to, contents.length - from);
+    return value;
+  }
+
+  // end-of-contents octets are a zero tag and length
+  private static boolean isEndOfContents(final byte[] tag, final byte[] length) {
+    return tag.length == 1 && tag[0] == 0 && length.length == 1 && length[0] == 0;
+  }
+
+  private void checkDepth(final byte[] tag, final int depth) {
+    if (depth > maxIndefiniteDepth) {
+      throw new AsnReadException(String.format("TLV %s is nested deeper than %d indefinite lengths", HexUtils.encode(tag), maxIndefiniteDepth));
+    }
+  }
+
+  // only constructed TLVs can have an indefinite length, at any depth
+  private static void checkConstructed(final byte[] tag) {
+    if ((tag[0] & BerBitMask.CONSTRUCTED_BIT) == 0) {
+      throw new AsnParseException(String.format("Primitive TLV %s cannot have an indefinite length", HexUtils.encode(tag)));
+    }
+  }
 }
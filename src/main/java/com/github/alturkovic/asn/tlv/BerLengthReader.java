@@ -39,7 +39,7 @@ public class BerLengthReader extends AbstractInputStreamReader {
     out.write(firstByte);
 
     // if first byte has MSB set to 1
-    // then bits 7-1 describe number of octets that represent length
+    // then bits 7-1 describe number of octets that represent length, or none if the length is indefinite
     if (((byte) firstByte & BerBitMask.MOST_SIGNIFICANT_BIT) == BerBitMask.MOST_SIGNIFICANT_BIT) {
       final var lengthOctetsRequired = (byte) firstByte & BerBitMask.NON_LEADING_BITS;
       final var lengthOctets = readBytes(inputStream, lengthOctetsRequired);
@@ -53,4 +53,12 @@ public class BerLengthReader extends AbstractInputStreamReader {
 
     return out.toByteArray();
   }
+
+  /**
+   * @param length length octets returned by {@link #read(InputStream)}
+   * @return true if the length is indefinite, so the value ends with end-of-contents octets
+   */
+  public boolean isIndefinite(final byte[] length) {
+    return length.length == 1 && (length[0] & 0xFF) == 0x80;
+  }
 }
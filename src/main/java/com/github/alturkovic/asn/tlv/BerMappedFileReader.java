@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.tlv;
+
+import com.github.alturkovic.asn.exception.AsnReadException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.Getter;
+
+/**
+ * Reads consecutive top-level TLVs from a memory-mapped file.
+ * <p>
+ * The file is mapped in windows, so files larger than 2 GB can be read, with a window being remapped whenever the next record does not fit
+ * into the current one. Records are bulk copied from the mapped window into a single reused buffer, skipped records are never copied.
+ * Returned slices are views into that buffer and are only valid until the next call to {@link #readNext()}.
+ * This class is not thread safe.
+ */
+public class BerMappedFileReader implements TlvRecordReader, Closeable {
+  private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+  private static final int MAX_HEADER_SIZE = 16;
+
+  private final FileChannel channel;
+  private final boolean closeChannel;
+  private final long size;
+  private final int windowSize;
+  private final BerSliceReader sliceReader = new BerSliceReader();
+
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position;
+  private byte[] record = new byte[1024];
+
+  // the whole file, mapped on demand, used to read record headers
+  private final ByteSource file = this::readByte;
+
+  @Getter
+  private long recordOffset;
+
+  public BerMappedFileReader(final Path path) {
+    this(open(path), DEFAULT_WINDOW_SIZE, true);
+  }
+
+  public BerMappedFileReader(final FileChannel channel) {
+    this(channel, DEFAULT_WINDOW_SIZE);
+  }
+
+  public BerMappedFileReader(final FileChannel channel, final int windowSize) {
+    this(channel, windowSize, false);
+  }
+
+  private BerMappedFileReader(final FileChannel channel, final int windowSize, final boolean closeChannel) {
+    this.channel = channel;
+    this.windowSize = Math.max(windowSize, MAX_HEADER_SIZE);
+    this.closeChannel = closeChannel;
+
+    try {
+      this.size = channel.size();
+    } catch (final IOException e) {
+      throw new AsnReadException(e);
+    }
+  }
+
+  @Override
+  public BerSlice readNext() {
+    final var totalLength = readHeader();
+    if (totalLength < 0) {
+      return null;
+    }
+
+    map(position, totalLength);
+    if (record.length < totalLength) {
+      record = new byte[Math.max(totalLength, (int) Math.min(Integer.MAX_VALUE - 8, record.length * 2L))];
+    }
+
+    final var view = window.duplicate();
+    view.position((int) (position - windowStart));
+    view.get(record, 0, totalLength);
+
+    final var slice = sliceReader.readNext(record, 0, totalLength);
+    recordOffset = position;
+    position += totalLength;
+    return slice;
+  }
+
+  @Override
+  public boolean skipNext() {
+    final var totalLength = readHeader();
+    if (totalLength < 0) {
+      return false;
+    }
+
+    recordOffset = position;
+    position += totalLength;
+    return true;
+  }
+
+  /**
+   * @return offset in the file of the next record
+   */
+  public long getPosition() {
+    return position;
+  }
+
+  /**
+   * Continue reading from the given offset, which must be the start of a record.
+   *
+   * @param position offset in the file
+   */
+  public void seek(final long position) {
+    if (position < 0 || position > size) {
+      throw new IllegalArgumentException(String.format("Position %d is outside of the file of size %d", position, size));
+    }
+
+    this.position = position;
+  }
+
+  @Override
+  public void close() {
+    if (closeChannel) {
+      try {
+        channel.close();
+      } catch (final IOException e) {
+        throw new AsnReadException(e);
+      }
+    }
+  }
+
+  // returns the total length of the next TLV, or -1 if there are no more records
+  private int readHeader() {
+    if (position >= size) {
+      return -1;
+    }
+
+    // values with an indefinite length are walked until their end-of-contents octets, otherwise only the header is read
+    final var totalLength = sliceReader.readTotalLength(file, position);
+    if (totalLength > size - position) {
+      throw new AsnReadException(String.format("Record at offset %d needs %d bytes, but the file has only %d left", position, totalLength, size - position));
+    }
+
+    if (totalLength > Integer.MAX_VALUE - 8) {
+      throw new AsnReadException(String.format("Record at offset %d is too large", position));
+    }
+
+    return (int) totalLength;
+  }
+
+  private int readByte(final long offset) {
+    if (offset >= size) {
+      throw new AsnReadException(String.format("Record at offset %d continues past the end of the file", position));
+    }
+
+    map(offset, 1);
+    return window.get((int) (offset - windowStart)) & 0xFF;
+  }
+
+  // ensure that [offset, offset + length) is inside of the mapped window
+  private void map(final long offset, final int length) {
+    if (window != null && offset >= windowStart && offset + length <= windowStart + window.limit()) {
+      return;
+    }
+
+    try {
+      window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(Math.max(windowSize, length), size - offset));
+      windowStart = offset;
+    } catch (final IOException e) {
+      throw new AsnReadException(e);
+    }
+  }
+
+  private static FileChannel open(final Path path) {
+    try {
+      return FileChannel.open(path, StandardOpenOption.READ);
+    } catch (final IOException e) {
+      throw new AsnReadException(e);
+    }
+  }
+}
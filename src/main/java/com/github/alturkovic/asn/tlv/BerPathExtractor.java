@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.tlv;
+
+import com.github.alturkovic.asn.exception.AsnReadException;
+import com.github.alturkovic.asn.tag.Tag;
+import com.github.alturkovic.asn.util.BerBitMask;
+import com.github.alturkovic.asn.util.BerUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Extracts TLVs found at fixed tag paths, i.e. a field of a nested structure, without decoding anything else.
+ * <p>
+ * Paths are compiled once into a tree of encoded tags, so that several paths sharing a prefix are extracted in a single pass.
+ * Tags are compared as raw octets, ignoring the constructed bit, and elements which are not on any path are skipped by their length without being copied.
+ * Only the first match of every path is extracted.
+ * <p>
+ * The extractor is immutable and can be shared between threads.
+ */
+public class BerPathExtractor {
+  private final BerSliceReader sliceReader = new BerSliceReader();
+  private final Node root = new Node(null);
+  private final int pathCount;
+
+  /**
+   * @param paths paths to extract, every path starts with the tag of the top-level TLV
+   */
+  public BerPathExtractor(final List<List<Tag>> paths) {
+    for (var i = 0; i < paths.size(); i++) {
+      var node = root;
+      for (final var tag : paths.get(i)) {
+        node = node.child(encode(tag));
+      }
+      node.pathIndex = i;
+    }
+    pathCount = paths.size();
+  }
+
+  /**
+   * Extract a single path.
+   *
+   * @param path path to extract, starting with the tag of the top-level TLV
+   * @return extractor for the path
+   */
+  public static BerPathExtractor of(final List<Tag> path) {
+    return new BerPathExtractor(List.of(path));
+  }
+
+  /**
+   * Extract all paths from a TLV, such as a record read by a {@link TlvRecordReader}.
+   *
+   * @param tlv TLV to search, matched against the first tag of every path
+   * @return views of the first TLV found for every path, in path order, null for paths that were not found
+   */
+  public BerSlice[] extract(final BerSlice tlv) {
+    final var results = new BerSlice[pathCount];
+    search(root, tlv.getBuffer(), tlv.getOffset(), tlv.getEnd(), tlv.getIndefiniteLengths(), results, pathCount);
+    return results;
+  }
+
+  /**
+   * Extract all paths from consecutive top-level TLVs.
+   *
+   * @param buffer buffer containing the TLVs
+   * @param offset offset of the first top-level TLV
+   * @param limit  offset of the first byte after the last top-level TLV
+   * @return views of the first TLV found for every path, in path order, null for paths that were not found
+   */
+  public BerSlice[] extract(final byte[] buffer, final int offset, final int limit) {
+    final var results = new BerSlice[pathCount];
+    search(root, buffer, offset, limit, null, results, pathCount);
+    return results;
+  }
+
+  public int getPathCount() {
+    return pathCount;
+  }
+
+  // returns the number of paths that are still not found, nested indefinite lengths are reused from known when they were already walked
+  private int search(final Node node, final byte[] buffer, final int offset, final int limit, final IndefiniteLengths known, final BerSlice[] results, final int remaining) {
+    var missing = remaining;
+    var position = offset;
+    while (position < limit && missing > 0) {
+      final var tagLength = sliceReader.readTagLength(buffer, position, limit);
+      final var lengthOffset = position + tagLength;
+      final var lengthLength = sliceReader.readLengthLength(buffer, lengthOffset, limit);
+      final var valueOffset = lengthOffset + lengthLength;
+      var valueLength = sliceReader.readValueLength(buffer, lengthOffset, lengthLength);
+      final var indefinite = valueLength == BerSliceReader.INDEFINITE_LENGTH;
+      final var child = node.find(buffer, position, tagLength);
+      var nested = known;
+      if (indefinite) {
+        sliceReader.checkConstructed(buffer, position);
+        valueLength = known == null ? BerSliceReader.INDEFINITE_LENGTH : known.get(valueOffset);
+        if (valueLength == BerSliceReader.INDEFINITE_LENGTH) {
+          // nested lengths are recorded only for elements on a path, whose contents are searched or viewed
+          nested = child == null ? null : new IndefiniteLengths();
+          valueLength = sliceReader.readIndefiniteValueLength(buffer, valueOffset, limit, nested);
+        }
+      } else if (valueLength > limit - valueOffset) {
+        throw new AsnReadException(String.format("TLV at offset %d needs %d value bytes, but only %d are available",
+            position, valueLength, limit - valueOffset));
+      }
+
+      if (child != null) {
+        if (child.pathIndex >= 0 && results[child.pathIndex] == null) {
+          results[child.pathIndex] = new BerSlice(buffer, position, tagLength, lengthLength, valueLength, indefinite, nested);
+          missing--;
+        }
+
+        if (child.children.length > 0) {
+          missing = search(child, buffer, valueOffset, valueOffset + valueLength, nested, results, missing);
+        }
+      }
+
+      // not on any path, or already searched
+      position = valueOffset + valueLength + (indefinite ? 2 : 0);
+    }
+    return missing;
+  }
+
+  // the constructed bit is cleared, so that it is ignored just like in Tag.equals
+  private static byte[] encode(final Tag tag) {
+    final var encoded = BerUtils.convert(tag);
+    encoded[0] &= ~BerBitMask.CONSTRUCTED_BIT;
+    return encoded;
+  }
+
+  private static class Node {
+    private final byte[] tag;
+    private Node[] children = new Node[0];
+    private int pathIndex = -1;
+
+    private Node(final byte[] tag) {
+      this.tag = tag;
+    }
+
+    private Node child(final byte[] childTag) {
+      for (final var child : children) {
+        if (Arrays.equals(child.tag, childTag)) {
+          return child;
+        }
+      }
+
+      final var child = new Node(childTag);
+      final var extended = new ArrayList<>(Arrays.asList(children));
+      extended.add(child);
+      children = extended.toArray(new Node[0]);
+      return child;
+    }
+
+    private Node find(final byte[] buffer, final int tagOffset, final int tagLength) {
+      for (final var child : children) {
+        if (child.matches(buffer, tagOffset, tagLength)) {
+          return child;
+        }
+      }
+      return null;
+    }
+
+    private boolean matches(final byte[] buffer, final int tagOffset, final int tagLength) {
+      if (tag.length != tagLength || tag[0] != (byte) (buffer[tagOffset] & ~BerBitMask.CONSTRUCTED_BIT)) {
+        return false;
+      }
+
+      for (var i = 1; i < tagLength; i++) {
+        if (tag[i] != buffer[tagOffset + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
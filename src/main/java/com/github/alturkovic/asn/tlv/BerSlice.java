@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.tlv;
+
+import com.github.alturkovic.asn.util.BerUtils;
+import com.github.alturkovic.asn.util.HexUtils;
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * A view of a single TLV inside of a larger buffer.
+ * Tag, length and value are kept as offsets into the original buffer, nothing is copied until explicitly requested.
+ * <p>
+ * Constructed TLVs may use the indefinite length form, in which case the value is followed by two end-of-contents octets
+ * that belong to the TLV, but not to its value.
+ */
+@Getter
+public class BerSlice {
+  private final byte[] buffer;
+  private final int offset;
+  private final int tagLength;
+  private final int lengthLength;
+  private final int valueLength;
+  private final boolean indefinite;
+
+  // lengths of nested indefinite values found while this TLV or one of its ancestors was read, null if there are none
+  @Getter(AccessLevel.PACKAGE)
+  private final IndefiniteLengths indefiniteLengths;
+
+  public BerSlice(final byte[] buffer, final int offset, final int tagLength, final int lengthLength, final int valueLength) {
+    this(buffer, offset, tagLength, lengthLength, valueLength, false);
+  }
+
+  public BerSlice(final byte[] buffer, final int offset, final int tagLength, final int lengthLength, final int valueLength, final boolean indefinite) {
+    this(buffer, offset, tagLength, lengthLength, valueLength, indefinite, null);
+  }
+
+  BerSlice(final byte[] buffer, final int offset, final int tagLength, final int lengthLength, final int valueLength, final boolean indefinite, final IndefiniteLengths indefiniteLengths) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.tagLength = tagLength;
+    this.lengthLength = lengthLength;
+    this.valueLength = valueLength;
+    this.indefinite = indefinite;
+    this.indefiniteLengths = indefiniteLengths;
+  }
+
+  public int getTagOffset() {
+    return offset;
+  }
+
+  public int getLengthOffset() {
+    return offset + tagLength;
+  }
+
+  public int getValueOffset() {
+    return offset + tagLength + lengthLength;
+  }
+
+  /**
+   * @return offset of the first byte after the value, which is the end of the TLV unless it has an indefinite length
+   */
+  public int getValueEnd() {
+    return getValueOffset() + valueLength;
+  }
+
+  /**
+   * @return offset of the first byte after this TLV, including the end-of-contents octets of an indefinite length
+   */
+  public int getEnd() {
+    return indefinite ? getValueEnd() + 2 : getValueEnd();
+  }
+
+  public int getTotalLength() {
+    return getEnd() - offset;
+  }
+
+  public byte[] getTag() {
+    return Arrays.copyOfRange(buffer, getTagOffset(), getLengthOffset());
+  }
+
+  public byte[] getLength() {
+    return Arrays.copyOfRange(buffer, getLengthOffset(), getValueOffset());
+  }
+
+  public byte[] getValue() {
+    return Arrays.copyOfRange(buffer, getValueOffset(), getValueEnd());
+  }
+
+  public byte[] toTlv() {
+    return Arrays.copyOfRange(buffer, offset, getEnd());
+  }
+
+  /**
+   * @return copy of the TLV, indefinite lengths are converted to the definite form
+   */
+  public BerData toBerData() {
+    return new BerData(getTag(), indefinite ? BerUtils.encodeLength(valueLength) : getLength(), getValue());
+  }
+
+  public String toString() {
+    return String.format("BerSlice[offset=%d, tag=%s, length=%s, value=%s]",
+        offset,
+        HexUtils.encode(getTag()),
+        HexUtils.encode(getLength()),
+        HexUtils.encode(getValue())
+    );
+  }
+}
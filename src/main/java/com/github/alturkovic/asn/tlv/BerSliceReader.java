@@ -0,0 +1,430 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.tlv;
+
+import com.github.alturkovic.asn.exception.AsnReadException;
+import com.github.alturkovic.asn.util.BerBitMask;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Reads BER TLV structures as {@link BerSlice} views into the given buffer, without copying tag, length or value.
+ * Reading from an {@link InputStream} is still supported, but it requires copying and is delegated to a {@link BerDataReader}.
+ */
+@Data
+@AllArgsConstructor
+public class BerSliceReader implements TlvDataReader {
+  /**
+   * Value length returned for the indefinite length form, whose value ends with two end-of-contents octets.
+   */
+  public static final int INDEFINITE_LENGTH = -1;
+
+  /**
+   * Default number of TLVs with an indefinite length that can be nested in each other, including the outermost one.
+   */
+  public static final int DEFAULT_MAX_INDEFINITE_DEPTH = 128;
+
+  private static final int INDEFINITE_LENGTH_OCTET = 0x80;
+
+  private final BerDataReader dataReader;
+  private final int maxIndefiniteDepth;
+
+  public BerSliceReader() {
+    this(new BerDataReader());
+  }
+
+  public BerSliceReader(final BerDataReader dataReader) {
+    this(dataReader, DEFAULT_MAX_INDEFINITE_DEPTH);
+  }
+
+  @Override
+  public BerData readNext(final InputStream inputStream) {
+    return dataReader.readNext(inputStream);
+  }
+
+  /**
+   * Read the next TLV from the beginning of the buffer.
+   *
+   * @param buffer buffer containing the TLV
+   * @return view of the next TLV
+   */
+  public BerSlice readNext(final byte[] buffer) {
+    return readNext(buffer, 0, buffer.length);
+  }
+
+  /**
+   * Read the next TLV starting at {@code offset}, which must not exceed {@code limit}.
+   *
+   * @param buffer buffer containing the TLV
+   * @param offset offset of the first tag byte
+   * @param limit  offset of the first byte that does not belong to the readable data
+   * @return view of the next TLV
+   */
+  public BerSlice readNext(final byte[] buffer, final int offset, final int limit) {
+    return readNext(buffer, offset, limit, null);
+  }
+
+  /**
+   * Read the next nested TLV inside the value of {@code parent}.
+   * Nested indefinite lengths already found while reading the parent are reused, instead of walking their contents again.
+   *
+   * @param parent TLV containing the nested TLV
+   * @param offset offset of the first tag byte, inside the value of the parent
+   * @return view of the nested TLV
+   */
+  public BerSlice readNext(final BerSlice parent, final int offset) {
+    return readNext(parent.getBuffer(), offset, parent.getValueEnd(), parent.getIndefiniteLengths());
+  }
+
+  private BerSlice readNext(final byte[] buffer, final int offset, final int limit, final IndefiniteLengths known) {
+    final var tagLength = readTagLength(buffer, offset, limit);
+    final var lengthOffset = offset + tagLength;
+    final var lengthLength = readLengthLength(buffer, lengthOffset, limit);
+    final var valueOffset = lengthOffset + lengthLength;
+    final var valueLength = readValueLength(buffer, lengthOffset, lengthLength);
+
+    if (valueLength == INDEFINITE_LENGTH) {
+      checkConstructed(buffer, offset);
+
+      final var knownLength = known == null ? INDEFINITE_LENGTH : known.get(valueOffset);
+      if (knownLength != INDEFINITE_LENGTH) {
+        return new BerSlice(buffer, offset, tagLength, lengthLength, knownLength, true, known);
+      }
+
+      final var nested = new IndefiniteLengths();
+      return new BerSlice(buffer, offset, tagLength, lengthLength, readIndefiniteValueLength(buffer, valueOffset, limit, nested), true, nested);
+    }
+
+    if (valueLength > limit - valueOffset) {
+      throw new AsnReadException(String.format("TLV at offset %d needs %d value bytes, but only %d are available",
+          offset, valueLength, limit - valueOffset));
+    }
+
+    return new BerSlice(buffer, offset, tagLength, lengthLength, valueLength, false, known);
+  }
+
+  /**
+   * Read only the header of the TLV starting at {@code offset}, the value does not need to be available.
+   * TLVs with an indefinite length are the exception, their whole value needs to be available to find where they end.
+   *
+   * @param buffer buffer containing at least the complete TLV header
+   * @param offset offset of the first tag byte
+   * @param limit  offset of the first byte that does not belong to the readable data
+   * @return total length of the TLV, including the header
+   */
+  public int readTotalLength(final byte[] buffer, final int offset, final int limit) {
+    return readTotalLength(buffer, offset, limit, null);
+  }
+
+  private int readTotalLength(final byte[] buffer, final int offset, final int limit, final IndefiniteLengths known) {
+    final var tagLength = readTagLength(buffer, offset, limit);
+    final var lengthLength = readLengthLength(buffer, offset + tagLength, limit);
+    final var valueLength = readValueLength(buffer, offset + tagLength, lengthLength);
+
+    if (valueLength == INDEFINITE_LENGTH) {
+      checkConstructed(buffer, offset);
+
+      final var valueOffset = offset + tagLength + lengthLength;
+      final var knownLength = known == null ? INDEFINITE_LENGTH : known.get(valueOffset);
+      return tagLength + lengthLength + (knownLength != INDEFINITE_LENGTH ? knownLength : readIndefiniteValueLength(buffer, valueOffset, limit, null)) + 2;
+    }
+
+    if (valueLength > Integer.MAX_VALUE - tagLength - lengthLength) {
+      throw new AsnReadException(String.format("TLV at offset %d is too large", offset));
+    }
+
+    return tagLength + lengthLength + valueLength;
+  }
+
+  /**
+   * Skip the TLV starting at {@code offset} without creating a view of it.
+   *
+   * @param buffer buffer containing the TLV
+   * @param offset offset of the first tag byte
+   * @param limit  offset of the first byte that does not belong to the readable data
+   * @return offset of the first byte after the TLV
+   */
+  public int skip(final byte[] buffer, final int offset, final int limit) {
+    return skip(buffer, offset, limit, null);
+  }
+
+  /**
+   * Skip the nested TLV starting at {@code offset} inside the value of {@code parent}, without creating a view of it.
+   *
+   * @param parent TLV containing the nested TLV
+   * @param offset offset of the first tag byte, inside the value of the parent
+   * @return offset of the first byte after the nested TLV
+   */
+  public int skip(final BerSlice parent, final int offset) {
+    return skip(parent.getBuffer(), offset, parent.getValueEnd(), parent.getIndefiniteLengths());
+  }
+
+  private int skip(final byte[] buffer, final int offset, final int limit, final IndefiniteLengths known) {
+    final var totalLength = readTotalLength(buffer, offset, limit, known);
+
+    if (totalLength > limit - offset) {
+      throw new AsnReadException(String.format("TLV at offset %d needs %d bytes, but only %d are available", offset, totalLength, limit - offset));
+    }
+
+    return offset + totalLength;
+  }
+
+  /**
+   * Read the next TLV from the current position of the buffer and advance the position past it.
+   * Heap buffers are viewed directly, while direct buffers have the TLV copied out.
+   *
+   * @param buffer buffer containing the TLV
+   * @return view of the next TLV
+   */
+  public BerSlice readNext(final ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      final var arrayOffset = buffer.arrayOffset();
+      final var slice = readNext(buffer.array(), arrayOffset + buffer.position(), arrayOffset + buffer.limit());
+      buffer.position(slice.getEnd() - arrayOffset);
+      return slice;
+    }
+
+    final var start = buffer.position();
+    final var end = buffer.limit();
+    final var totalLength = readTotalLength(position -> {
+      if (position >= end) {
+        throw new AsnReadException(String.format("TLV needs more than the %d available bytes", end - start));
+      }
+      return buffer.get((int) position) & 0xFF;
+    }, start);
+
+    if (totalLength > buffer.remaining()) {
+      throw new AsnReadException(String.format("TLV needs %d bytes, but only %d are available", totalLength, buffer.remaining()));
+    }
+
+    final var tlv = new byte[(int) totalLength];
+    buffer.get(tlv);
+    return readNext(tlv);
+  }
+
+  /**
+   * Read only the number of tag octets of the TLV starting at {@code offset}, so that the tag can be inspected in place.
+   *
+   * @param buffer buffer containing the TLV
+   * @param offset offset of the first tag byte
+   * @param limit  offset of the first byte that does not belong to the readable data
+   * @return number of tag octets
+   */
+  public int readTagLength(final byte[] buffer, final int offset, final int limit) {
+    var position = offset;
+    final var firstByte = readByte(buffer, position++, limit);
+
+    // if first byte has bits 5-1 set to 1
+    // then it is a multibyte value
+    if ((firstByte & BerBitMask.TAG_VALUE_BITS) == BerBitMask.TAG_VALUE_BITS) {
+      int valueByte;
+      do {
+        valueByte = readByte(buffer, position++, limit);
+      } while ((valueByte & BerBitMask.MOST_SIGNIFICANT_BIT) == BerBitMask.MOST_SIGNIFICANT_BIT);
+    }
+
+    return position - offset;
+  }
+
+  int readLengthLength(final byte[] buffer, final int offset, final int limit) {
+    final var firstByte = readByte(buffer, offset, limit);
+
+    if (firstByte == INDEFINITE_LENGTH_OCTET) {
+      return 1;
+    }
+
+    // if first byte has MSB set to 1
+    // then bits 7-1 describe number of octets that represent length
+    if ((firstByte & BerBitMask.MOST_SIGNIFICANT_BIT) == BerBitMask.MOST_SIGNIFICANT_BIT) {
+      final var lengthOctets = firstByte & BerBitMask.NON_LEADING_BITS;
+      if (lengthOctets > 4) {
+        throw new AsnReadException(String.format("Unsupported number of length octets at offset %d: %d", offset, lengthOctets));
+      }
+
+      if (offset + lengthOctets >= limit) {
+        throw new AsnReadException(String.format("Length at offset %d needs %d octets, but only %d are available", offset, lengthOctets, limit - offset - 1));
+      }
+
+      return lengthOctets + 1;
+    }
+
+    return 1;
+  }
+
+  int readValueLength(final byte[] buffer, final int offset, final int lengthLength) {
+    if (lengthLength == 1) {
+      return (buffer[offset] & 0xFF) == INDEFINITE_LENGTH_OCTET ? INDEFINITE_LENGTH : buffer[offset];
+    }
+
+    var length = 0;
+    for (int i = offset + 1; i < offset + lengthLength; i++) {
+      length = (length << 8) | (buffer[i] & 0xFF);
+    }
+
+    if (length < 0) {
+      throw new AsnReadException(String.format("Length at offset %d is too large", offset));
+    }
+
+    return length;
+  }
+
+  /**
+   * Find the length of the value of a TLV with an indefinite length, by skipping nested TLVs until the end-of-contents octets.
+   * Nested TLVs with an indefinite length are walked in the same pass, without recursion, up to the maximum depth.
+   *
+   * @param buffer      buffer containing the TLV
+   * @param valueOffset offset of the first value byte
+   * @param limit       offset of the first byte that does not belong to the readable data
+   * @param nested      receives the value lengths of nested TLVs with an indefinite length, may be null
+   * @return length of the value, without the end-of-contents octets
+   */
+  int readIndefiniteValueLength(final byte[] buffer, final int valueOffset, final int limit, final IndefiniteLengths nested) {
+    // value offsets of the open TLVs, the walked TLV is at depth 0
+    var valueOffsets = new int[16];
+    valueOffsets[0] = valueOffset;
+    var depth = 0;
+    var position = valueOffset;
+    while (true) {
+      if (readByte(buffer, position, limit) == 0 && readByte(buffer, position + 1, limit) == 0) {
+        final var valueLength = position - valueOffsets[depth];
+        if (depth == 0) {
+          return valueLength;
+        }
+
+        if (nested != null) {
+          nested.put(valueOffsets[depth], valueLength);
+        }
+        depth--;
+        position += 2;
+        continue;
+      }
+
+      final var tagLength = readTagLength(buffer, position, limit);
+      final var lengthOffset = position + tagLength;
+      final var lengthLength = readLengthLength(buffer, lengthOffset, limit);
+      final var nestedValueOffset = lengthOffset + lengthLength;
+      final var valueLength = readValueLength(buffer, lengthOffset, lengthLength);
+
+      if (valueLength == INDEFINITE_LENGTH) {
+        checkConstructed(buffer, position);
+        if (++depth >= maxIndefiniteDepth) {
+          throw new AsnReadException(String.format("TLV at offset %d is nested deeper than %d indefinite lengths", position, maxIndefiniteDepth));
+        }
+
+        if (depth == valueOffsets.length) {
+          valueOffsets = Arrays.copyOf(valueOffsets, depth * 2);
+        }
+        valueOffsets[depth] = nestedValueOffset;
+        position = nestedValueOffset;
+      } else if (valueLength > limit - nestedValueOffset) {
+        throw new AsnReadException(String.format("TLV at offset %d needs %d value bytes, but only %d are available",
+            position, valueLength, limit - nestedValueOffset));
+      } else {
+        position = nestedValueOffset + valueLength;
+      }
+    }
+  }
+
+  /**
+   * Find the total length of the TLV starting at {@code offset}, reading only headers from the source.
+   * Values of TLVs with a definite length are never read, so they do not need to be available yet,
+   * while values with an indefinite length are walked through the headers of their nested TLVs until the end-of-contents octets,
+   * without recursion, up to the maximum depth.
+   *
+   * @param source source of the TLV
+   * @param offset position of the first tag byte
+   * @return total length of the TLV, including the header and end-of-contents octets
+   */
+  long readTotalLength(final ByteSource source, final long offset) {
+    var position = offset;
+    var depth = 0;
+    do {
+      // end-of-contents octets close the innermost open TLV
+      if (depth > 0 && source.get(position) == 0 && source.get(position + 1) == 0) {
+        position += 2;
+        depth--;
+        continue;
+      }
+
+      final var tagOffset = position;
+      final var firstByte = source.get(position++);
+
+      if ((firstByte & BerBitMask.TAG_VALUE_BITS) == BerBitMask.TAG_VALUE_BITS) {
+        int valueByte;
+        do {
+          valueByte = source.get(position++);
+        } while ((valueByte & BerBitMask.MOST_SIGNIFICANT_BIT) == BerBitMask.MOST_SIGNIFICANT_BIT);
+      }
+
+      final var lengthByte = source.get(position++);
+      if (lengthByte == INDEFINITE_LENGTH_OCTET) {
+        if ((firstByte & BerBitMask.CONSTRUCTED_BIT) == 0) {
+          throw new AsnReadException(String.format("Primitive TLV at offset %d cannot have an indefinite length", tagOffset));
+        }
+
+        if (++depth > maxIndefiniteDepth) {
+          throw new AsnReadException(String.format("TLV at offset %d is nested deeper than %d indefinite lengths", tagOffset, maxIndefiniteDepth));
+        }
+        continue;
+      }
+
+      if ((lengthByte & BerBitMask.MOST_SIGNIFICANT_BIT) == 0) {
+        position += lengthByte;
+        continue;
+      }
+
+      final var lengthOctets = lengthByte & BerBitMask.NON_LEADING_BITS;
+      if (lengthOctets > 4) {
+        throw new AsnReadException(String.format("Unsupported number of length octets at offset %d: %d", position - 1, lengthOctets));
+      }
+
+      var valueLength = 0L;
+      for (int i = 0; i < lengthOctets; i++) {
+        valueLength = (valueLength << 8) | source.get(position++);
+      }
+      position += valueLength;
+    } while (depth > 0);
+
+    return position - offset;
+  }
+
+  void checkConstructed(final byte[] buffer, final int offset) {
+    if ((buffer[offset] & BerBitMask.CONSTRUCTED_BIT) == 0) {
+      throw new AsnReadException(String.format("Primitive TLV at offset %d cannot have an indefinite length", offset));
+    }
+  }
+
+  private int readByte(final byte[] buffer, final int position, final int limit) {
+    if (position >= limit) {
+      throw new AsnReadException(String.format("Unexpected end of data at offset %d", position));
+    }
+
+    return buffer[position] & 0xFF;
+  }
+}
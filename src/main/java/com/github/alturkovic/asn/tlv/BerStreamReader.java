@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.tlv;
+
+import com.github.alturkovic.asn.exception.AsnReadException;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.Getter;
+
+/**
+ * Reads consecutive top-level TLVs from an {@link InputStream}, such as a file containing many concatenated records.
+ * <p>
+ * The stream is read in bulk into a single internal buffer which is reused between records and only grows to fit the largest record,
+ * so memory usage is bounded by the record size and not by the stream size.
+ * Returned slices are views into that buffer and are only valid until the next call to {@link #readNext()}.
+ * Records with an indefinite length are read until their end-of-contents octets, as far as the headers of nested TLVs lead.
+ * This class is not thread safe.
+ */
+public class BerStreamReader implements TlvRecordReader {
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private final InputStream inputStream;
+  private final BerSliceReader sliceReader;
+
+  private byte[] buffer;
+  // buffer[start, limit) holds read, but not yet consumed data
+  private int start;
+  private int limit;
+
+  @Getter
+  private long recordOffset;
+  private long consumed;
+
+  // unconsumed data, read from the stream on demand
+  private final ByteSource unconsumed = position -> {
+    // lengths of nested TLVs can point far past what a record can hold, positions are checked before they are buffered
+    if (position >= Integer.MAX_VALUE - 8) {
+      throw new AsnReadException(String.format("Record at offset %d is too large", consumed));
+    }
+
+    ensureAvailable((int) position + 1, true);
+    return buffer[start + (int) position] & 0xFF;
+  };
+
+  public BerStreamReader(final InputStream inputStream) {
+    this(inputStream, DEFAULT_BUFFER_SIZE);
+  }
+
+  public BerStreamReader(final InputStream inputStream, final int initialBufferSize) {
+    this.inputStream = inputStream;
+    this.sliceReader = new BerSliceReader();
+    this.buffer = new byte[Math.max(initialBufferSize, 16)];
+  }
+
+  @Override
+  public BerSlice readNext() {
+    final var totalLength = readHeader();
+    if (totalLength < 0) {
+      return null;
+    }
+
+    ensureAvailable(totalLength, true);
+
+    final var slice = sliceReader.readNext(buffer, start, start + totalLength);
+    consume(totalLength);
+    return slice;
+  }
+
+  @Override
+  public boolean skipNext() {
+    final var totalLength = readHeader();
+    if (totalLength < 0) {
+      return false;
+    }
+
+    // buffered part of the record is discarded, the rest is skipped in the stream without being read into the buffer
+    var remaining = (long) totalLength - (limit - start);
+    if (remaining <= 0) {
+      consume(totalLength);
+      return true;
+    }
+
+    try {
+      remaining -= inputStream.skip(remaining);
+      while (remaining > 0) {
+        if (inputStream.read() < 0) {
+          throw new AsnReadException(String.format("Stream ended in the middle of a record starting at offset %d", consumed));
+        }
+        remaining--;
+        remaining -= inputStream.skip(remaining);
+      }
+    } catch (final IOException e) {
+      throw new AsnReadException(e);
+    }
+
+    recordOffset = consumed;
+    consumed += totalLength;
+    start = 0;
+    limit = 0;
+    return true;
+  }
+
+  // returns the total length of the next TLV, or -1 if the stream ended
+  private int readHeader() {
+    if (!ensureAvailable(1, false)) {
+      return -1;
+    }
+
+    // only headers are read to find the length, values with an indefinite length are walked until their end-of-contents octets,
+    // reading the stream just as far as needed; positions are relative to the start, which may move while the buffer is compacted
+    final var totalLength = sliceReader.readTotalLength(unconsumed, 0);
+
+    if (totalLength > Integer.MAX_VALUE - 8) {
+      throw new AsnReadException(String.format("Record at offset %d is too large", consumed));
+    }
+
+    return (int) totalLength;
+  }
+
+  private void consume(final int totalLength) {
+    recordOffset = consumed;
+    consumed += totalLength;
+    start += totalLength;
+  }
+
+  /**
+   * Ensure that at least {@code required} unconsumed bytes are in the buffer, reading from the stream as needed.
+   *
+   * @return false if the stream ended before any byte could be read and {@code required} is not mandatory
+   */
+  private boolean ensureAvailable(final int required, final boolean mandatory) {
+    if (limit - start >= required) {
+      return true;
+    }
+
+    if (buffer.length - start < required) {
+      compact(required);
+    }
+
+    while (limit - start < required) {
+      final int read;
+      try {
+        read = inputStream.read(buffer, limit, buffer.length - limit);
+      } catch (final IOException e) {
+        throw new AsnReadException(e);
+      }
+
+      if (read < 0) {
+        if (!mandatory && limit == start) {
+          return false;
+        }
+
+        throw new AsnReadException(String.format("Stream ended at offset %d, in the middle of a record starting at offset %d",
+            consumed + (limit - start), consumed));
+      }
+
+      limit += read;
+    }
+
+    return true;
+  }
+
+  // move unconsumed data to the beginning of the buffer, growing it if it cannot fit the required data
+  private void compact(final int required) {
+    final var unconsumed = limit - start;
+
+    if (required > buffer.length) {
+      final var grown = new byte[Math.max(required, (int) Math.min(Integer.MAX_VALUE - 8, buffer.length * 2L))];
+      System.arraycopy(buffer, start, grown, 0, unconsumed);
+      buffer = grown;
+    } else {
+      System.arraycopy(buffer, start, buffer, 0, unconsumed);
+    }
+
+    start = 0;
+    limit = unconsumed;
+  }
+}
@@ -37,4 +37,8 @@ public class BerValueReader extends AbstractInputStreamReader {
 
     return readBytes(inputStream, bytesToRead);
   }
+
+  public void skip(final InputStream inputStream, final int bytesToSkip) {
+    skipBytes(inputStream, bytesToSkip);
+  }
 }
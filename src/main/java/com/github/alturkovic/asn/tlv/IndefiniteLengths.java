@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.tlv;
+
+/**
+ * Value lengths of nested TLVs with an indefinite length, recorded while the value of an enclosing TLV with an indefinite length is walked,
+ * so that views of the nested TLVs do not walk the same contents again.
+ * <p>
+ * Lengths are added only by the walk that created the table, afterwards it is only read and can be shared between threads.
+ */
+final class IndefiniteLengths {
+  private static final int INITIAL_CAPACITY = 8;
+
+  // open addressing by value offset + 1, so that zero marks an empty slot
+  private int[] keys;
+  private int[] lengths;
+  private int size;
+
+  /**
+   * @param valueOffset offset of the first value byte of a nested TLV
+   * @return length of its value, or {@link BerSliceReader#INDEFINITE_LENGTH} if it was not recorded
+   */
+  int get(final int valueOffset) {
+    if (keys == null) {
+      return BerSliceReader.INDEFINITE_LENGTH;
+    }
+
+    final var key = valueOffset + 1;
+    final var mask = keys.length - 1;
+    for (var i = slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        return lengths[i];
+      }
+    }
+    return BerSliceReader.INDEFINITE_LENGTH;
+  }
+
+  void put(final int valueOffset, final int valueLength) {
+    if (keys == null) {
+      keys = new int[INITIAL_CAPACITY];
+      lengths = new int[INITIAL_CAPACITY];
+    } else if (2 * (size + 1) > keys.length) {
+      final var oldKeys = keys;
+      final var oldLengths = lengths;
+      keys = new int[oldKeys.length * 2];
+      lengths = new int[oldKeys.length * 2];
+      for (var i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0) {
+          insert(oldKeys[i], oldLengths[i]);
+        }
+      }
+    }
+
+    insert(valueOffset + 1, valueLength);
+    size++;
+  }
+
+  private void insert(final int key, final int valueLength) {
+    final var mask = keys.length - 1;
+    var i = slot(key, mask);
+    while (keys[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    keys[i] = key;
+    lengths[i] = valueLength;
+  }
+
+  private static int slot(final int key, final int mask) {
+    final var hash = key * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+}
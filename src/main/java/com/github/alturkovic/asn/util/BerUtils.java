@@ -32,7 +32,6 @@ import com.github.alturkovic.asn.tag.UniversalTags;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.Arrays;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -45,87 +44,175 @@ public final class BerUtils {
       throw new AsnParseException("Null");
     }
 
-    final var type = (b[0] & BerBitMask.CLASS_BITS) >> 6;
-    final var isConstructed = (b[0] & BerBitMask.CONSTRUCTED_BIT) == BerBitMask.CONSTRUCTED_BIT;
-    var value = 0;
+    return parseTag(b, 0, b.length);
+  }
 
-    if (b.length == 1) {
-      if ((b[0] & BerBitMask.TAG_VALUE_BITS) == BerBitMask.TAG_VALUE_BITS) {
-        throw new AsnParseException(String.format("If bits 5 to 1 are set tag must not be only one byte long: %02X", b[0]));
-      }
+  /**
+   * Parse the tag octets at the given position of the buffer, without copying them.
+   *
+   * @param b      buffer containing the tag
+   * @param offset offset of the first tag octet
+   * @param length number of tag octets
+   * @return parsed tag
+   */
+  public static Tag parseTag(final byte[] b, final int offset, final int length) {
+    final var type = (b[offset] & BerBitMask.CLASS_BITS) >> 6;
+    final var isConstructed = (b[offset] & BerBitMask.CONSTRUCTED_BIT) == BerBitMask.CONSTRUCTED_BIT;
+    return new Tag(parseTagValue(b, offset, length), Type.fromCode(type), isConstructed);
+  }
 
-      value = b[0] & BerBitMask.TAG_VALUE_BITS;
-    } else {
-      if ((b[0] & BerBitMask.TAG_VALUE_BITS) != BerBitMask.TAG_VALUE_BITS) {
-        throw new AsnParseException(String.format("For multibyte tags bits 5 to 1 of the first byte must be all set to 1: %s[%02X]", HexUtils.encode(b), b[0]));
-      }
+  /**
+   * Parse the tag octets at the given position of the buffer into a packed tag, without allocating anything.
+   *
+   * @param b      buffer containing the tag
+   * @param offset offset of the first tag octet
+   * @param length number of tag octets
+   * @return packed tag, see {@link #packTag(Tag)}
+   */
+  public static long parsePackedTag(final byte[] b, final int offset, final int length) {
+    final var type = (b[offset] & BerBitMask.CLASS_BITS) >> 6;
+    return packTag(type, parseTagValue(b, offset, length));
+  }
 
-      if ((b[b.length - 1] & BerBitMask.MOST_SIGNIFICANT_BIT) != 0) {
-        throw new AsnParseException(String.format("For multibyte tag bit 8 of the final byte must be 0: %s[%02X]", HexUtils.encode(b), b[b.length - 1]));
-      }
+  /**
+   * Pack the class and number of a tag into a single primitive, so that it can be compared and hashed without a {@link Tag} instance.
+   * Like {@link Tag#equals(Object)}, the constructed bit is not a part of the packed tag.
+   *
+   * @param tag tag to pack
+   * @return packed tag
+   */
+  public static long packTag(final Tag tag) {
+    return packTag(tag.getType().getCode(), tag.getValue());
+  }
 
-      for (int i = 1; i < b.length; i++) {
-        if ((i < (b.length - 1)) && (b[i] & BerBitMask.MOST_SIGNIFICANT_BIT) != BerBitMask.MOST_SIGNIFICANT_BIT) {
-          throw new AsnParseException(String.format("For multibyte tag bit 8 of the internal bytes must be 1: %s[%02X]", HexUtils.encode(b), b[i]));
-        }
+  private static long packTag(final int typeCode, final int value) {
+    // the value is masked, so that it never sign extends over the class bits
+    return ((long) typeCode << 32) | (value & 0xFFFFFFFFL);
+  }
+
+  private static int parseTagValue(final byte[] b, final int offset, final int length) {
+    final var first = b[offset];
+    final var last = b[offset + length - 1];
 
-        value = value << 7;
-        value = value | (b[i] & BerBitMask.NON_LEADING_BITS);
+    if (length == 1) {
+      if ((first & BerBitMask.TAG_VALUE_BITS) == BerBitMask.TAG_VALUE_BITS) {
+        throw new AsnParseException(String.format("If bits 5 to 1 are set tag must not be only one byte long: %02X", first));
       }
+
+      return first & BerBitMask.TAG_VALUE_BITS;
     }
 
-    return new Tag(value, Type.fromCode(type), isConstructed);
+    if ((first & BerBitMask.TAG_VALUE_BITS) != BerBitMask.TAG_VALUE_BITS) {
+      throw new AsnParseException(String.format("For multibyte tags bits 5 to 1 of the first byte must be all set to 1: %s[%02X]", HexUtils.encode(b, offset, length), first));
+    }
+
+    if ((last & BerBitMask.MOST_SIGNIFICANT_BIT) != 0) {
+      throw new AsnParseException(String.format("For multibyte tag bit 8 of the final byte must be 0: %s[%02X]", HexUtils.encode(b, offset, length), last));
+    }
+
+    var value = 0;
+    for (int i = 1; i < length; i++) {
+      final var octet = b[offset + i];
+      if ((i < (length - 1)) && (octet & BerBitMask.MOST_SIGNIFICANT_BIT) != BerBitMask.MOST_SIGNIFICANT_BIT) {
+        throw new AsnParseException(String.format("For multibyte tag bit 8 of the internal bytes must be 1: %s[%02X]", HexUtils.encode(b, offset, length), octet));
+      }
+
+      if ((value >>> 24) != 0) {
+        throw new AsnParseException(String.format("Tag number is too large: %s", HexUtils.encode(b, offset, length)));
+      }
+
+      value = value << 7;
+      value = value | (octet & BerBitMask.NON_LEADING_BITS);
+    }
+    return value;
   }
 
   public static int parseLength(final byte[] b) {
-    final var length = b.length;
+    return parseLength(b, 0, b.length);
+  }
+
+  /**
+   * Parse the length octets at the given position of the buffer, without copying them.
+   *
+   * @param b      buffer containing the length
+   * @param offset offset of the first length octet
+   * @param length number of length octets
+   * @return parsed length
+   */
+  public static int parseLength(final byte[] b, final int offset, final int length) {
+    final var first = b[offset];
 
     if (length == 1) {
-      if ((b[0] & BerBitMask.MOST_SIGNIFICANT_BIT) == BerBitMask.MOST_SIGNIFICANT_BIT) {
-        throw new AsnParseException(String.format("When length is 1 byte, first bit should not be 1: %02X", b[0]));
+      if ((first & BerBitMask.MOST_SIGNIFICANT_BIT) == BerBitMask.MOST_SIGNIFICANT_BIT) {
+        throw new AsnParseException(String.format("When length is 1 byte, first bit should not be 1: %02X", first));
       }
 
-      return b[0];
+      return first;
     }
 
     // first byte describes how many bytes are used, and first bit is supposed to be 1
-    if ((b[0] & BerBitMask.MOST_SIGNIFICANT_BIT) != BerBitMask.MOST_SIGNIFICANT_BIT) {
-      throw new AsnParseException(String.format("When length is more than 1 byte, first bit should be 1: %s", HexUtils.encode(b)));
+    if ((first & BerBitMask.MOST_SIGNIFICANT_BIT) != BerBitMask.MOST_SIGNIFICANT_BIT) {
+      throw new AsnParseException(String.format("When length is more than 1 byte, first bit should be 1: %s", HexUtils.encode(b, offset, length)));
     }
 
-    if ((b[0] & BerBitMask.NON_LEADING_BITS) != (b.length - 1)) {
-      throw new AsnParseException(String.format("Length is not as described in the first byte: %s != %d", HexUtils.encode(b), (b.length - 1)));
+    if ((first & BerBitMask.NON_LEADING_BITS) != (length - 1)) {
+      throw new AsnParseException(String.format("Length is not as described in the first byte: %s != %d", HexUtils.encode(b, offset, length), (length - 1)));
     }
 
-    // value is the hex representation of the following bytes
-    return Integer.valueOf(HexUtils.encode(Arrays.copyOfRange(b, 1, b.length)), 16);
+    // value is the big-endian unsigned number in the following bytes
+    var value = 0L;
+    for (int i = offset + 1; i < offset + length; i++) {
+      value = (value << 8) | (b[i] & 0xFF);
+      if (value > Integer.MAX_VALUE) {
+        throw new AsnParseException(String.format("Length is too large: %s", HexUtils.encode(b, offset, length)));
+      }
+    }
+    return (int) value;
   }
 
   public static byte[] encodeLength(final int length) {
+    final var result = new byte[lengthOctets(length)];
+    writeLength(result, 0, length);
+    return result;
+  }
+
+  /**
+   * @param length value length to encode
+   * @return number of octets needed to encode the length
+   */
+  public static int lengthOctets(final int length) {
+    if (length < 0) {
+      throw new AsnParseException(String.format("Length cannot be negative: %d", length));
+    }
+
     if (length < 128) {
-      return new byte[]{(byte) length};
+      return 1;
     }
 
-    var hex = Integer.toHexString(length);
+    // the first octet tells how many of the following octets hold the length
+    return 1 + (Integer.SIZE - Integer.numberOfLeadingZeros(length) + 7) / 8;
+  }
 
-    // good enough...
-    if (hex.length() % 2 != 0) {
-      hex = "0" + hex;
+  /**
+   * Encode the length directly into the buffer.
+   *
+   * @param out    destination with at least {@link #lengthOctets(int)} bytes remaining at the offset
+   * @param offset offset of the first length octet
+   * @param length value length to encode
+   * @return offset of the first byte after the length octets
+   */
+  public static int writeLength(final byte[] out, final int offset, final int length) {
+    final var octets = lengthOctets(length) - 1;
+    if (octets == 0) {
+      out[offset] = (byte) length;
+      return offset + 1;
     }
 
-    final byte[] raw;
-    try {
-      raw = HexUtils.decode(hex);
-    } catch (final RuntimeException e) {
-      throw new AsnParseException(e);
+    out[offset] = (byte) (octets | BerBitMask.MOST_SIGNIFICANT_BIT);
+    for (int i = 0; i < octets; i++) {
+      out[offset + octets - i] = (byte) (length >>> (8 * i));
     }
-
-    // result should be the actual HEX representation of the length with the first byte
-    // being the length of the HEX, first byte is used to tell how many bytes to read
-    final var result = new byte[raw.length + 1];
-    result[0] = (byte) (raw.length | BerBitMask.MOST_SIGNIFICANT_BIT);
-    System.arraycopy(raw, 0, result, 1, raw.length);
-    return result;
+    return offset + octets + 1;
   }
 
   public static byte[] convert(final Tag tag) {
@@ -25,6 +25,10 @@
 
 package com.github.alturkovic.asn.util;
 
+import com.github.alturkovic.asn.Lazy;
+import com.github.alturkovic.asn.exception.AsnConfigurationException;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -35,6 +39,33 @@ public final class ClassUtils {
     return supportedWrapperToPrimitive(clazz).isPrimitive();
   }
 
+  /**
+   * Type of the value held by the field, which is the type argument for {@link Lazy} fields.
+   */
+  public static Class<?> valueType(final Field field) {
+    if (!isLazy(field)) {
+      return field.getType();
+    }
+
+    final var genericType = field.getGenericType();
+    if (genericType instanceof ParameterizedType) {
+      final var typeArgument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+      if (typeArgument instanceof Class) {
+        return (Class<?>) typeArgument;
+      }
+
+      if (typeArgument instanceof ParameterizedType) {
+        return (Class<?>) ((ParameterizedType) typeArgument).getRawType();
+      }
+    }
+
+    throw new AsnConfigurationException(String.format("Cannot resolve the type of lazy field '%s'", field.getName()));
+  }
+
+  public static boolean isLazy(final Field field) {
+    return field.getType() == Lazy.class;
+  }
+
   public static Class<?> supportedWrapperToPrimitive(final Class<?> clazz) {
     if (clazz == Integer.class) {
       return int.class;
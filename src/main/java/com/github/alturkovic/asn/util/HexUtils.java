@@ -35,10 +35,14 @@ public final class HexUtils {
   private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
 
   public static String encode(final byte[] data) {
-    final var l = data.length;
-    final var out = new char[l << 1];
+    return encode(data, 0, data.length);
+  }
+
+  public static String encode(final byte[] data, final int offset, final int length) {
+    final var l = offset + length;
+    final var out = new char[length << 1];
     // two characters form the hex value.
-    for (int i = 0, j = 0; i < l; i++) {
+    for (int i = offset, j = 0; i < l; i++) {
       out[j++] = DIGITS[(0xF0 & data[i]) >>> 4];
       out[j++] = DIGITS[0x0F & data[i]];
     }
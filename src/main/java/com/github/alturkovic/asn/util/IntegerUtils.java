@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Two's complement INTEGER arithmetic working directly on the encoded octets, without {@link java.math.BigInteger}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class IntegerUtils {
+
+  /**
+   * Parse big-endian two's complement octets. Redundant leading sign octets are allowed.
+   *
+   * @throws ArithmeticException if there are no octets or the value does not fit into a long
+   */
+  public static long parseLong(final byte[] data, final int offset, final int length) {
+    if (length <= 0) {
+      throw new ArithmeticException("Zero length INTEGER");
+    }
+
+    var start = offset;
+    final var end = offset + length;
+    // skip octets which only repeat the sign of the following octet
+    while (end - start > 1 && ((data[start] == 0 && data[start + 1] >= 0) || (data[start] == -1 && data[start + 1] < 0))) {
+      start++;
+    }
+
+    if (end - start > Long.BYTES) {
+      throw new ArithmeticException("INTEGER out of long range");
+    }
+
+    // sign extended first octet, the rest are unsigned
+    long value = data[start];
+    for (var i = start + 1; i < end; i++) {
+      value = (value << 8) | (data[i] & 0xFF);
+    }
+    return value;
+  }
+
+  /**
+   * @throws ArithmeticException if there are no octets or the value does not fit into an int
+   */
+  public static int parseInt(final byte[] data, final int offset, final int length) {
+    final var value = parseLong(data, offset, length);
+    if ((int) value != value) {
+      throw new ArithmeticException("INTEGER out of int range");
+    }
+    return (int) value;
+  }
+
+  /**
+   * @throws ArithmeticException if there are no octets or the value does not fit into a short
+   */
+  public static short parseShort(final byte[] data, final int offset, final int length) {
+    final var value = parseLong(data, offset, length);
+    if ((short) value != value) {
+      throw new ArithmeticException("INTEGER out of short range");
+    }
+    return (short) value;
+  }
+
+  /**
+   * Number of octets in the minimal two's complement encoding of the value.
+   */
+  public static int encodedLength(final long value) {
+    // significant bits without the sign, plus one sign bit
+    final var bits = Long.SIZE - Long.numberOfLeadingZeros(value < 0 ? ~value : value) + 1;
+    return (bits + 7) >>> 3;
+  }
+
+  /**
+   * Minimal two's complement encoding of the value.
+   */
+  public static byte[] encode(final long value) {
+    final var result = new byte[encodedLength(value)];
+    write(value, result, 0, result.length);
+    return result;
+  }
+
+  /**
+   * Write the lowest {@code length} octets of the value into {@code out}, big-endian.
+   *
+   * @return offset after the last written octet
+   */
+  public static int write(final long value, final byte[] out, final int offset, final int length) {
+    var shifted = value;
+    for (var i = offset + length - 1; i >= offset; i--) {
+      out[i] = (byte) shifted;
+      shifted >>= 8;
+    }
+    return offset + length;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.util;
+
+import com.github.alturkovic.asn.exception.AsnConfigurationException;
+import java.util.Arrays;
+
+/**
+ * An immutable open-addressing hash index from packed tags (see {@link BerUtils#packTag}) to their position in the array it was built from.
+ * Lookups neither allocate nor box.
+ */
+public final class PackedTagIndex {
+  private static final long EMPTY = -1;
+
+  private final long[] keys;
+  private final int[] positions;
+  private final int mask;
+
+  /**
+   * @param packedTags distinct packed tags, each mapped to its position in this array
+   */
+  public PackedTagIndex(final long[] packedTags) {
+    // at most half full, so probe sequences stay short
+    var capacity = 2;
+    while (capacity < packedTags.length * 2) {
+      capacity <<= 1;
+    }
+
+    keys = new long[capacity];
+    positions = new int[capacity];
+    mask = capacity - 1;
+    Arrays.fill(keys, EMPTY);
+
+    for (var i = 0; i < packedTags.length; i++) {
+      var slot = slot(packedTags[i]);
+      while (keys[slot] != EMPTY) {
+        if (keys[slot] == packedTags[i]) {
+          throw new AsnConfigurationException("Duplicate packed tag: " + packedTags[i]);
+        }
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = packedTags[i];
+      positions[slot] = i;
+    }
+  }
+
+  /**
+   * @param packedTag packed tag to find
+   * @return position of the tag, or -1 if it is not indexed
+   */
+  public int indexOf(final long packedTag) {
+    var slot = slot(packedTag);
+    while (true) {
+      final var key = keys[slot];
+      if (key == packedTag) {
+        return positions[slot];
+      }
+
+      if (key == EMPTY) {
+        return -1;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private int slot(final long packedTag) {
+    // tag numbers are mostly small and consecutive, spread them over the table
+    return (int) ((packedTag * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.accessor;
+
+import com.github.alturkovic.asn.exception.AsnAccessException;
+import com.github.alturkovic.asn.field.accessor.FieldHandle;
+import com.github.alturkovic.asn.field.accessor.MethodHandleFieldAccessor;
+import com.github.alturkovic.asn.model.Person;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MethodHandleFieldAccessorTest {
+
+  private final MethodHandleFieldAccessor accessor = new MethodHandleFieldAccessor();
+
+  @Test
+  public void shouldSetAndGetPrivateFields() throws Exception {
+    final Person person = new Person();
+
+    accessor.setFieldValue(person, Person.class.getDeclaredField("age"), 24);
+    accessor.setFieldValue(person, Person.class.getDeclaredField("male"), true);
+
+    assertThat(person.getAge()).isEqualTo(24);
+    assertThat(person.isMale()).isTrue();
+    assertThat((Integer) accessor.getFieldValue(person, Person.class.getDeclaredField("age"))).isEqualTo(24);
+  }
+
+  @Test
+  public void shouldSetAndGetPrimitivesWithoutBoxing() throws Exception {
+    final Person person = new Person();
+    final FieldHandle shoeSize = accessor.handle(Person.class.getDeclaredField("shoeSize"));
+    final FieldHandle male = accessor.handle(Person.class.getDeclaredField("male"));
+
+    shoeSize.setShort(person, (short) 42);
+    male.setBoolean(person, true);
+
+    assertThat(person.getShoeSize()).isEqualTo((short) 42);
+    assertThat(shoeSize.getShort(person)).isEqualTo((short) 42);
+    assertThat(male.getBoolean(person)).isTrue();
+  }
+
+  @Test
+  public void shouldFallBackToBoxingForWrapperFields() throws Exception {
+    final Person person = new Person();
+    final FieldHandle age = accessor.handle(Person.class.getDeclaredField("age"));
+
+    age.setInt(person, 30);
+
+    assertThat(person.getAge()).isEqualTo(30);
+    assertThat(age.getInt(person)).isEqualTo(30);
+  }
+
+  @Test
+  public void shouldReuseHandles() throws Exception {
+    assertThat(accessor.handle(Person.class.getDeclaredField("age"))).isSameAs(accessor.handle(Person.class.getDeclaredField("age")));
+  }
+
+  @Test(expected = AsnAccessException.class)
+  public void shouldFailBecauseValueHasWrongType() throws Exception {
+    accessor.setFieldValue(new Person(), Person.class.getDeclaredField("age"), "24");
+  }
+
+  @Test
+  public void shouldNotCallAccessors() throws Exception {
+    final Accessors instance = new Accessors();
+    final FieldHandle number = accessor.handle(Accessors.class.getDeclaredField("number"));
+    final FieldHandle name = accessor.handle(Accessors.class.getDeclaredField("name"));
+
+    number.setLong(instance, 5);
+    name.set(instance, "name");
+
+    assertThat(number.getLong(instance)).isEqualTo(5);
+    assertThat((Long) number.get(instance)).isEqualTo(5);
+    assertThat((String) name.get(instance)).isEqualTo("name");
+
+    name.set(instance, null);
+    assertThat((String) name.get(instance)).isNull();
+    assertThat(instance.calls).isZero();
+  }
+
+  @Test
+  public void shouldAccessFieldsWithoutAccessors() throws Exception {
+    final NoAccessors instance = new NoAccessors();
+    final FieldHandle number = accessor.handle(NoAccessors.class.getDeclaredField("number"));
+    final FieldHandle flag = accessor.handle(NoAccessors.class.getDeclaredField("flag"));
+
+    number.setInt(instance, 7);
+    flag.setBoolean(instance, true);
+
+    assertThat(number.getInt(instance)).isEqualTo(7);
+    assertThat(flag.getBoolean(instance)).isTrue();
+  }
+
+  @Test(expected = AsnAccessException.class)
+  public void shouldFailBecauseAccessorValueHasWrongType() throws Exception {
+    accessor.setFieldValue(new Accessors(), Accessors.class.getDeclaredField("name"), 24);
+  }
+
+  @Test(expected = AsnAccessException.class)
+  public void shouldFailBecausePrimitiveAccessorValueIsNull() throws Exception {
+    accessor.setFieldValue(new Accessors(), Accessors.class.getDeclaredField("number"), null);
+  }
+
+  @Test(expected = AsnAccessException.class)
+  public void shouldFailBecauseInstanceHasWrongType() throws Exception {
+    accessor.setFieldValue(new NoAccessors(), Accessors.class.getDeclaredField("number"), 5L);
+  }
+
+  @Test(expected = AsnAccessException.class)
+  public void shouldFailBecauseInstanceIsNull() throws Exception {
+    accessor.getFieldValue(null, Accessors.class.getDeclaredField("name"));
+  }
+
+  // accessors change values and count their calls, fields must be accessed without them
+  private static class Accessors {
+    private long number;
+    private String name;
+    private int calls;
+
+    long getNumber() {
+      calls++;
+      return number + 1;
+    }
+
+    void setNumber(final long number) {
+      calls++;
+      this.number = number * 2;
+    }
+
+    String getName() {
+      calls++;
+      return name == null ? "" : name;
+    }
+
+    void setName(final String name) {
+      calls++;
+      this.name = name.toUpperCase();
+    }
+  }
+
+  private static class NoAccessors {
+    private int number;
+    private boolean flag;
+  }
+}
@@ -80,4 +80,10 @@ public class HexStringConverterTest {
   public void shouldEncodeNullBecauseInputIsNull() throws Exception {
     assertThat(converter.encode(null)).isNull();
   }
+
+  @Test
+  @Parameters("AA385998069002BB")
+  public void shouldDecodeFromPartOfBuffer(@HexParam final byte[] buffer) throws Exception {
+    assertThat(new HexStringConverter().decode(buffer, 1, 6)).isEqualTo("385998069002");
+  }
 }
\ No newline at end of file
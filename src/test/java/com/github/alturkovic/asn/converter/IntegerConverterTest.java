@@ -114,4 +114,14 @@ public class IntegerConverterTest {
   public void shouldEncodeNullBecauseInputIsNull() throws Exception {
     assertThat(converter.encode(null)).isNull();
   }
+
+  @Test
+  @Parameters({
+      "AA0080BB, 1, 2, 128",
+      "AAFFFF, 1, 2, -1",
+      "6555, 0, 1, 101"
+  })
+  public void shouldDecodeFromPartOfBuffer(@HexParam final byte[] buffer, final int offset, final int length, final int expected) throws Exception {
+    assertThat(new IntegerConverter().decodeInt(buffer, offset, length)).isEqualTo(expected);
+  }
 }
\ No newline at end of file
@@ -26,6 +26,7 @@
 package com.github.alturkovic.asn.converter;
 
 import com.github.alturkovic.asn.params.HexParam;
+import java.nio.charset.StandardCharsets;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
 import junitparams.naming.TestCaseName;
@@ -81,4 +82,11 @@ public class Utf8StringConverterTest {
   public void shouldEncodeNullBecauseInputIsNull() throws Exception {
     assertThat(converter.encode(null)).isNull();
   }
+
+  @Test
+  public void shouldDecodeFromPartOfBuffer() throws Exception {
+    final byte[] buffer = "--Hello--".getBytes(StandardCharsets.UTF_8);
+
+    assertThat(new Utf8StringConverter().decode(buffer, 2, 5)).isEqualTo("Hello");
+  }
 }
\ No newline at end of file
@@ -25,19 +25,47 @@
 
 package com.github.alturkovic.asn.decoder;
 
+import com.github.alturkovic.asn.Lazy;
+import com.github.alturkovic.asn.exception.AsnDecodeException;
+import com.github.alturkovic.asn.exception.AsnReadException;
+import com.github.alturkovic.asn.field.accessor.FieldAccessor;
+import com.github.alturkovic.asn.field.accessor.FieldHandle;
+import com.github.alturkovic.asn.field.accessor.MethodHandleFieldAccessor;
 import com.github.alturkovic.asn.model.Address;
+import com.github.alturkovic.asn.model.BoxedValues;
 import com.github.alturkovic.asn.model.EventA;
 import com.github.alturkovic.asn.model.EventB;
 import com.github.alturkovic.asn.model.EventListWrapper;
 import com.github.alturkovic.asn.model.EventWrapper;
+import com.github.alturkovic.asn.model.LazyEventWrapper;
+import com.github.alturkovic.asn.model.LazyPerson;
 import com.github.alturkovic.asn.model.MultipleAddressWrapper;
+import com.github.alturkovic.asn.model.Node;
 import com.github.alturkovic.asn.model.Person;
+import com.github.alturkovic.asn.tag.Tag;
+import com.github.alturkovic.asn.tag.Type;
+import com.github.alturkovic.asn.tlv.BerDataReader;
+import com.github.alturkovic.asn.tlv.BerStreamReader;
 import com.github.alturkovic.asn.util.HexUtils;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.Test;
 
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 public class BerDecoderTest {
 
@@ -94,4 +122,270 @@ public class BerDecoderTest {
         new EventB(true, 2)
     );
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldDecodeNestedStructuresWithStreamBasedReader() {
+    final byte[] encoded = HexUtils.decode("302aa40c0201010404616472318201ffa40c020102040461647232820100a40c020103040461647233820100");
+    final MultipleAddressWrapper decoded = new BerDecoder(new BerDataReader()).decode(MultipleAddressWrapper.class, encoded);
+    assertThat(decoded.getAddressOne()).isEqualTo(new Address("adr1", 1, true));
+    assertThat(decoded.getAddressTwo()).isEqualTo(new Address("adr2", 2, false));
+  }
+
+  @Test
+  public void shouldDecodeConcurrentlyWithSharedDecoder() throws Exception {
+    final byte[] ber = HexUtils.decode("F03C0101FF020118311004063859980690030406385998069002A11FA20D040546697273740201018201FFA20E04065365636F6E64020102820100830128");
+    final AsnDecoder<byte[]> sharedDecoder = new BerDecoderBuilder().build();
+    final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    try {
+      final List<Callable<Person>> tasks = IntStream.range(0, 1000)
+          .mapToObj(i -> (Callable<Person>) () -> sharedDecoder.decode(Person.class, ber))
+          .collect(Collectors.toList());
+
+      for (final Future<Person> decoded : executor.invokeAll(tasks)) {
+        assertThat(decoded.get().getAge()).isEqualTo(24);
+        assertThat(decoded.get().getAddresses()).containsExactly(new Address("First", 1, true), new Address("Second", 2, false));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldDecodeRecursiveStructure() {
+    final byte[] encoded = HexUtils.decode("300D800101A108800102A103800103");
+    final Node decoded = decoder.decode(Node.class, encoded);
+    assertThat(decoded).isEqualTo(new Node(1, new Node(2, new Node(3, null))));
+  }
+
+  @Test
+  public void shouldStreamConcatenatedRecords() {
+    final byte[] records = HexUtils.decode("300D810161A208A106810101820102" + "300D810162A208A2068101FF820102" + "300D810161A208A106810103820104");
+
+    final List<EventWrapper> decoded = new BerDecoder().stream(EventWrapper.class, new ByteArrayInputStream(records)).collect(Collectors.toList());
+
+    assertThat(decoded).extracting(EventWrapper::getId).containsExactly("a", "b", "a");
+    assertThat(decoded.get(2).getEvent()).isEqualTo(new EventA(3, 4));
+  }
+
+  @Test
+  public void shouldIterateEmptyStream() {
+    final Iterator<Person> iterator = new BerDecoder().iterator(Person.class, new ByteArrayInputStream(new byte[0]));
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @Test
+  public void shouldDecodePrimitiveFieldsWithoutBoxing() {
+    final List<String> boxed = new ArrayList<>();
+    final FieldAccessor delegate = new MethodHandleFieldAccessor();
+    final FieldAccessor recordingAccessor = new FieldAccessor() {
+      @Override
+      public void setFieldValue(final Object instance, final Field field, final Object value) {
+        boxed.add(field.getName());
+        delegate.setFieldValue(instance, field, value);
+      }
+
+      @Override
+      public <T> T getFieldValue(final Object instance, final Field field) {
+        return delegate.getFieldValue(instance, field);
+      }
+
+      @Override
+      public FieldHandle handle(final Field field) {
+        final var handle = delegate.handle(field);
+        return new FieldHandle() {
+          @Override
+          public void set(final Object instance, final Object value) {
+            setFieldValue(instance, field, value);
+          }
+
+          @Override
+          public <T> T get(final Object instance) {
+            return handle.get(instance);
+          }
+
+          @Override
+          public void setInt(final Object instance, final int value) {
+            handle.setInt(instance, value);
+          }
+
+          @Override
+          public void setShort(final Object instance, final short value) {
+            handle.setShort(instance, value);
+          }
+
+          @Override
+          public void setBoolean(final Object instance, final boolean value) {
+            handle.setBoolean(instance, value);
+          }
+        };
+      }
+    };
+
+    final byte[] ber = HexUtils.decode("F03C0101FF020118311004063859980690030406385998069002A11FA20D040546697273740201018201FFA20E04065365636F6E64020102820100830128");
+    final Person decoded = new BerDecoder(new BerDataReader(), recordingAccessor).decode(Person.class, ber);
+
+    assertThat(decoded.isMale()).isTrue();
+    assertThat(decoded.getShoeSize()).isEqualTo((short) 40);
+    assertThat(decoded.getAddresses()).extracting(Address::getNumber).containsExactly(1, 2);
+    // only reference typed fields are set through the boxed path, age is an Integer
+    assertThat(boxed).containsOnly("age", "phones", "addresses", "street");
+  }
+
+  @Test
+  public void shouldDecodeBoxedValuesInPlace() {
+    final byte[] encoded = HexUtils.decode("300C" + "810118" + "A207" + "830101" + "8302012C");
+
+    assertThat(decoder.decode(BoxedValues.class, encoded)).isEqualTo(new BoxedValues(24, asList(1, 300)));
+  }
+
+  @Test
+  public void shouldDecodeLazyCollectionsOnFirstAccess() {
+    final byte[] ber = HexUtils.decode("F03C0101FF020118311004063859980690030406385998069002A11FA20D040546697273740201018201FFA20E04065365636F6E64020102820100830128");
+    final LazyPerson decoded = decoder.decode(LazyPerson.class, ber);
+
+    assertThat(decoded.getAge()).isEqualTo(24);
+    assertThat(decoded.getShoeSize()).isEqualTo((short) 40);
+    assertThat(decoded.getAddresses().isDecoded()).isFalse();
+    assertThat(decoded.getPhones().isDecoded()).isFalse();
+
+    assertThat(decoded.getAddresses().get()).containsExactly(new Address("First", 1, true), new Address("Second", 2, false));
+    assertThat(decoded.getAddresses().isDecoded()).isTrue();
+    assertThat(decoded.getPhones().isDecoded()).isFalse();
+    assertThat(decoded.getPhones().get()).containsOnly("385998069002", "385998069003");
+  }
+
+  @Test
+  public void shouldDecodeLazyPolymorphicStructure() {
+    final LazyEventWrapper decoded = decoder.decode(LazyEventWrapper.class, HexUtils.decode("300D810162A208A2068101FF820102"));
+
+    assertThat(decoded.getId()).isEqualTo("b");
+    assertThat(decoded.getEvent().isDecoded()).isFalse();
+    assertThat(decoded.getEvent()).isEqualTo(Lazy.of(new EventB(true, 2)));
+  }
+
+  @Test
+  public void shouldKeepLazyDataOfStreamedRecords() {
+    final byte[] records = HexUtils.decode("300D810161A208A106810101820102" + "300D810162A208A2068101FF820102" + "300D810161A208A106810103820104");
+
+    // the stream reader reuses its buffer, lazy values are only accessed after all records were read
+    final List<LazyEventWrapper> decoded = new BerDecoder().stream(LazyEventWrapper.class, new ByteArrayInputStream(records)).collect(Collectors.toList());
+
+    assertThat(decoded).extracting(w -> w.getEvent().get())
+        .containsExactly(new EventA(1, 2), new EventB(true, 2), new EventA(3, 4));
+  }
+
+  @Test
+  public void shouldSkipUnmappedElements() {
+    final byte[] encoded = HexUtils.decode("30818B" + "800101" + "858180" + "AB".repeat(128) + "A103800102");
+
+    assertThat(decoder.decode(Node.class, encoded)).isEqualTo(new Node(1, new Node(2, null)));
+  }
+
+  @Test
+  public void shouldLocateNestedDecodeFailure() {
+    final byte[] encoded = HexUtils.decode("3011" + "800101" + "A10C" + "800102" + "A107" + "80050102030405");
+
+    final var thrown = catchThrowable(() -> decoder.decode(Node.class, encoded));
+    assertThat(thrown).isInstanceOf(AsnDecodeException.class);
+    final var exception = (AsnDecodeException) thrown;
+
+    assertThat(exception.getOffset()).isEqualTo(12);
+    assertThat(exception.getTagPath()).containsExactly(
+        new Tag(16, Type.UNIVERSAL, true), new Tag(1, Type.CONTEXT, true), new Tag(1, Type.CONTEXT, true), new Tag(0, Type.CONTEXT, false));
+    assertThat(exception.getMessage())
+        .startsWith("Cannot set value into field 'value'")
+        .contains("path: UNIVERSAL[16]/CONTEXT[1]/CONTEXT[1]/CONTEXT[0]")
+        .endsWith("offset: 12, data at 0: 3011800101A10C800102A10780050102030405");
+  }
+
+  @Test
+  public void shouldBoundDecodeFailureData() {
+    final byte[] encoded = HexUtils.decode("30818A" + "858180" + "AB".repeat(128) + "800101" + "A103" + "8001");
+
+    final var thrown = catchThrowable(() -> decoder.decode(Node.class, encoded));
+    assertThat(thrown).isInstanceOf(AsnDecodeException.class);
+    final var exception = (AsnDecodeException) thrown;
+
+    // the nested structure is truncated, only the bytes around it are kept
+    assertThat(exception.getOffset()).isEqualTo(137);
+    assertThat(exception.getMessage()).endsWith("offset: 137, data at 121: " + "AB".repeat(13) + "800101A1038001");
+  }
+
+  @Test
+  public void shouldReportFailedRecordsAndContinue() {
+    final byte[] records = HexUtils.decode("300D810161A208A106810101820102" + "3004A2038101" + "300D810161A208A106810103820104");
+
+    final List<BerRecordFailure> failures = new ArrayList<>();
+    final List<BerRecord<EventWrapper>> decoded = new BerDecoder().records(EventWrapper.class, new BerStreamReader(new ByteArrayInputStream(records)), failures::add)
+        .collect(Collectors.toList());
+
+    assertThat(decoded).extracting(BerRecord::getOffset).containsExactly(0L, 21L);
+    assertThat(decoded).extracting(r -> r.getValue().getEvent()).containsExactly(new EventA(1, 2), new EventA(3, 4));
+    assertThat(failures).hasSize(1);
+    assertThat(failures.get(0).getOffset()).isEqualTo(15);
+    assertThat(failures.get(0).getLength()).isEqualTo(6);
+    assertThat(failures.get(0).getFailureOffset()).isEqualTo(17);
+  }
+
+  @Test(expected = AsnDecodeException.class)
+  public void shouldFailOnFirstFailedRecordWithoutHandler() {
+    final byte[] records = HexUtils.decode("300D810161A208A106810101820102" + "3004A2038101");
+
+    new BerDecoder().stream(EventWrapper.class, new ByteArrayInputStream(records)).forEach(r -> {
+    });
+  }
+
+  @Test
+  public void shouldDecodeAllRecordsInParallel() {
+    final StringBuilder records = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      records.append(String.format("300D810161A208A1068101%02X820102", i % 100));
+    }
+    final byte[] data = HexUtils.decode(records.toString());
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final List<EventWrapper> decoded = new BerDecoder().decodeAll(EventWrapper.class, data, pool);
+
+      assertThat(decoded).containsExactlyElementsOf(new BerDecoder().stream(EventWrapper.class, new ByteArrayInputStream(data)).collect(Collectors.toList()));
+      assertThat(decoded.get(12345).getEvent()).isEqualTo(new EventA(45, 2));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldDecodeAllOfEmptyData() {
+    assertThat(new BerDecoder().decodeAll(EventWrapper.class, new byte[0])).isEmpty();
+  }
+
+  @Test(expected = AsnDecodeException.class)
+  public void shouldFailDecodeAllOnFailedRecord() {
+    new BerDecoder().decodeAll(EventWrapper.class, HexUtils.decode("300D810161A208A106810101820102" + "3004A2038101"));
+  }
+
+  @Test
+  public void shouldDecodeIndefiniteLength() {
+    final byte[] encoded = HexUtils.decode("3080" + "800101" + "A180" + "800102" + "A180" + "800103" + "0000" + "0000" + "0000");
+
+    assertThat(decoder.decode(Node.class, encoded)).isEqualTo(new Node(1, new Node(2, new Node(3, null))));
+  }
+
+  @Test
+  public void shouldStreamIndefiniteLengthRecords() {
+    final byte[] records = HexUtils.decode("3080800101A18080010200000000" + "3003800103" + "3080800104A18080010500000000");
+
+    final List<Node> decoded = new BerDecoder().stream(Node.class, new ByteArrayInputStream(records)).collect(Collectors.toList());
+
+    assertThat(decoded).containsExactly(new Node(1, new Node(2, null)), new Node(3, null), new Node(4, new Node(5, null)));
+  }
+
+  @Test
+  public void shouldFailBecauseIndefiniteLengthsAreNestedTooDeep() {
+    final byte[] encoded = HexUtils.decode("3080" + "A180".repeat(20_000) + "0000".repeat(20_001));
+
+    assertThatThrownBy(() -> decoder.decode(Node.class, encoded)).isInstanceOf(AsnReadException.class);
+    assertThatThrownBy(() -> new BerDecoder().stream(Node.class, new ByteArrayInputStream(encoded)).count()).isInstanceOf(AsnReadException.class);
+  }
+}
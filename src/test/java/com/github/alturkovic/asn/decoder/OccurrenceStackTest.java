@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.decoder;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OccurrenceStackTest {
+
+  @Test
+  public void shouldCountPerStructure() {
+    final var occurrences = new OccurrenceStack();
+
+    final var parent = occurrences.push(2);
+    assertThat(occurrences.next(parent, 1)).isEqualTo(0);
+    assertThat(occurrences.next(parent, 1)).isEqualTo(1);
+
+    final var child = occurrences.push(2);
+    assertThat(occurrences.next(child, 1)).isEqualTo(0);
+    occurrences.pop(child);
+
+    assertThat(occurrences.next(parent, 1)).isEqualTo(2);
+    assertThat(occurrences.next(parent, 0)).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldResetReusedCounters() {
+    final var occurrences = new OccurrenceStack();
+
+    final var first = occurrences.push(1);
+    occurrences.next(first, 0);
+    occurrences.pop(first);
+
+    final var second = occurrences.push(1);
+    assertThat(second).isEqualTo(first);
+    assertThat(occurrences.next(second, 0)).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldGrow() {
+    final var occurrences = new OccurrenceStack();
+
+    var base = 0;
+    for (var i = 0; i < 100; i++) {
+      base = occurrences.push(3);
+      occurrences.next(base, 2);
+    }
+
+    assertThat(occurrences.next(base, 2)).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldResetReusedCountersWhenGrowing() {
+    final var occurrences = new OccurrenceStack();
+
+    occurrences.push(10);
+    final var first = occurrences.push(20);
+    for (var slot = 0; slot < 20; slot++) {
+      occurrences.next(first, slot);
+    }
+    occurrences.pop(first);
+
+    final var second = occurrences.push(25);
+    for (var slot = 0; slot < 25; slot++) {
+      assertThat(occurrences.next(second, slot)).isEqualTo(0);
+    }
+  }
+}
@@ -25,19 +25,51 @@
 
 package com.github.alturkovic.asn.encoder;
 
+import com.github.alturkovic.asn.Lazy;
+import com.github.alturkovic.asn.decoder.BerDecoder;
+import com.github.alturkovic.asn.exception.AsnEncodeException;
+import com.github.alturkovic.asn.field.accessor.FieldHandle;
+import com.github.alturkovic.asn.field.accessor.MethodHandleFieldAccessor;
 import com.github.alturkovic.asn.model.Address;
+import com.github.alturkovic.asn.model.EventA;
+import com.github.alturkovic.asn.model.EventWrapper;
+import com.github.alturkovic.asn.model.LazyEventWrapper;
+import com.github.alturkovic.asn.model.LazyPerson;
+import com.github.alturkovic.asn.model.Node;
 import com.github.alturkovic.asn.model.Person;
 import com.github.alturkovic.asn.util.HexUtils;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.Test;
 
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class BerEncoderTest {
 
   private final AsnEncoder<byte[]> encoder = new BerEncoder();
 
+  private final String personHex = "F03C0101FF020118311004063859980690030406385998069002A11FA20D040546697273740201018201FFA20E04065365636F6E64020102820100830128";
+
+  private final Person person = Person.builder()
+      .male(true)
+      .age(24)
+      .shoeSize((short) 40)
+      .adult(true)
+      .phones(new HashSet<>(asList("385998069002", "385998069003")))
+      .addresses(asList(new Address("First", 1, true), new Address("Second", 2, false)))
+      .build();
+
   @Test
   public void shouldEncodePersonExample() {
     final byte[] encodedHex = encoder.encode(Person.builder()
@@ -52,4 +84,168 @@ public class BerEncoderTest {
     final String expected = "F03C0101FF020118311004063859980690030406385998069002A11FA20D040546697273740201018201FFA20E04065365636F6E64020102820100830128";
     assertThat(HexUtils.decode(expected)).isEqualTo(encodedHex);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldEncodeLongFormLengthsAtEveryLevel() {
+    final String longStreet = "S".repeat(300);
+    final Set<String> phones = IntStream.range(0, 50)
+        .mapToObj(i -> String.format("3859980690%02d", i))
+        .collect(Collectors.toSet());
+
+    final Person person = Person.builder()
+        .male(false)
+        .age(70000)
+        .shoeSize((short) 44)
+        .adult(true)
+        .phones(phones)
+        .addresses(asList(new Address(longStreet, 1, true), new Address("Second", 2, false)))
+        .build();
+
+    final byte[] encoded = encoder.encode(person);
+
+    // F0 tag followed by a long form length, content is larger than 255 bytes
+    assertThat(encoded[0]).isEqualTo((byte) 0xF0);
+    assertThat(encoded[1]).isEqualTo((byte) 0x82);
+    assertThat(((encoded[2] & 0xFF) << 8 | (encoded[3] & 0xFF)) + 4).isEqualTo(encoded.length);
+    assertThat(new BerDecoder().decode(Person.class, encoded)).isEqualTo(person);
+  }
+
+  @Test
+  public void shouldEncodeIntoOutputStream() {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    final long written = new BerEncoder().encode(person, out);
+
+    assertThat(written).isEqualTo(personHex.length() / 2);
+    assertThat(out.toByteArray()).isEqualTo(HexUtils.decode(personHex));
+  }
+
+  @Test
+  public void shouldEncodeIntoHeapAndDirectByteBuffers() {
+    final BerEncoder berEncoder = new BerEncoder();
+    final byte[] expected = HexUtils.decode(personHex);
+
+    final ByteBuffer heap = ByteBuffer.allocate(100);
+    heap.position(10);
+    assertThat(berEncoder.encode(person, heap)).isEqualTo(expected.length);
+    assertThat(heap.position()).isEqualTo(10 + expected.length);
+
+    final ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+    berEncoder.encode(person, direct);
+    assertThat(direct.hasRemaining()).isFalse();
+
+    final byte[] heapEncoded = new byte[expected.length];
+    final byte[] directEncoded = new byte[expected.length];
+    heap.flip().position(10);
+    heap.get(heapEncoded);
+    direct.flip().get(directEncoded);
+    assertThat(heapEncoded).isEqualTo(expected);
+    assertThat(directEncoded).isEqualTo(expected);
+  }
+
+  @Test
+  public void shouldNotWriteIntoTooSmallByteBuffer() {
+    final ByteBuffer buffer = ByteBuffer.allocate(10);
+
+    assertThatThrownBy(() -> new BerEncoder().encode(person, buffer)).isInstanceOf(AsnEncodeException.class);
+    assertThat(buffer.position()).isZero();
+  }
+
+  @Test
+  public void shouldWriteUndecodedLazyValuesAsTheyWereRead() {
+    final LazyPerson decoded = new BerDecoder().decode(LazyPerson.class, HexUtils.decode(personHex));
+    decoded.setAge(25);
+    decoded.getPhones().get();
+
+    final byte[] encoded = encoder.encode(decoded);
+
+    assertThat(decoded.getAddresses().isDecoded()).isFalse();
+    assertThat(HexUtils.encode(encoded)).isEqualTo(personHex.replace("020118", "020119"));
+  }
+
+  @Test
+  public void shouldEncodeLazyValues() {
+    final byte[] encoded = encoder.encode(new LazyEventWrapper("a", Lazy.of(new EventA(1, 2))));
+
+    assertThat(encoded).isEqualTo(encoder.encode(new EventWrapper("a", new EventA(1, 2))));
+  }
+
+  @Test
+  public void shouldEncodeIndefiniteLength() {
+    final var node = new Node(1, new Node(2, null));
+
+    final byte[] encoded = new BerEncoderBuilder().indefiniteLength(true).build().encode(node);
+
+    assertThat(HexUtils.encode(encoded)).isEqualTo("3080800101A18080010200000000");
+    assertThat(new BerDecoder().decode(Node.class, encoded)).isEqualTo(node);
+
+    final var out = new ByteArrayOutputStream();
+    new BerEncoderBuilder().indefiniteLength(true).build().encode(node, out);
+    assertThat(out.toByteArray()).isEqualTo(encoded);
+  }
+
+  @Test
+  public void shouldEncodeLargeCollectionsInParallelWithIdenticalOutput() {
+    final Person person = Person.builder()
+        .age(24)
+        .phones(IntStream.range(0, 20000).mapToObj(i -> String.format("385998%06d", i)).collect(Collectors.toSet()))
+        .addresses(IntStream.range(0, 20000).mapToObj(i -> new Address("Street " + i, i, i % 2 == 0)).collect(Collectors.toList()))
+        .build();
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final BerEncoder parallelEncoder = new BerEncoderBuilder().parallelPool(pool).parallelThreshold(1000).build();
+      assertThat(parallelEncoder.encode(person)).isEqualTo(encoder.encode(person));
+
+      final BerEncoder indefiniteParallelEncoder = new BerEncoderBuilder().indefiniteLength(true).parallelPool(pool).parallelThreshold(1000).build();
+      assertThat(indefiniteParallelEncoder.encode(person)).isEqualTo(new BerEncoderBuilder().indefiniteLength(true).build().encode(person));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldEncodeBatchInParallelWithIdenticalOutput() {
+    final List<EventWrapper> records = IntStream.range(0, 5000)
+        .mapToObj(i -> new EventWrapper(String.valueOf(i), new EventA(i, -i)))
+        .collect(Collectors.toList());
+
+    final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    records.forEach(r -> expected.writeBytes(encoder.encode(r)));
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final BerEncoder berEncoder = new BerEncoder();
+      assertThat(berEncoder.encodeAll(records, pool)).isEqualTo(expected.toByteArray());
+
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertThat(berEncoder.encodeAll(records, out, pool)).isEqualTo(expected.size());
+      assertThat(out.toByteArray()).isEqualTo(expected.toByteArray());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldEncodeEmptyBatch() {
+    assertThat(new BerEncoder().encodeAll(new ArrayList<>())).isEmpty();
+  }
+
+  @Test
+  public void shouldResolveFieldHandlesOncePerClass() {
+    final AtomicInteger resolved = new AtomicInteger();
+    final BerEncoder countingEncoder = new BerEncoder(new MethodHandleFieldAccessor() {
+      @Override
+      public FieldHandle handle(final Field field) {
+        resolved.incrementAndGet();
+        return super.handle(field);
+      }
+    });
+
+    assertThat(countingEncoder.encode(person)).isEqualTo(HexUtils.decode(personHex));
+    final int resolvedForFirst = resolved.get();
+
+    assertThat(countingEncoder.encode(person)).isEqualTo(HexUtils.decode(personHex));
+    assertThat(resolved.get()).isEqualTo(resolvedForFirst);
+  }
+}
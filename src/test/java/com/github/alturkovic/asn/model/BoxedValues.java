@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.model;
+
+import com.github.alturkovic.asn.annotation.AsnCollection;
+import com.github.alturkovic.asn.annotation.AsnPrimitive;
+import com.github.alturkovic.asn.annotation.AsnStructure;
+import com.github.alturkovic.asn.annotation.AsnTag;
+import com.github.alturkovic.asn.converter.IntegerConverter;
+import com.github.alturkovic.asn.tag.Type;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@AsnStructure(@AsnTag(value = 16, type = Type.UNIVERSAL))
+public class BoxedValues {
+
+  @AsnPrimitive(value = @AsnTag(1), asnConverter = InPlaceIntegerConverter.class)
+  private Integer count;
+
+  @AsnCollection(value = @AsnTag(2), elementTag = @AsnTag(3), structured = false, asnConverter = InPlaceIntegerConverter.class, type = Integer.class)
+  private List<Integer> values;
+
+  // fails if a value is copied out of the decoded buffer before it is converted
+  public static class InPlaceIntegerConverter extends IntegerConverter {
+    @Override
+    public int decodeInt(final byte[] data) {
+      throw new UnsupportedOperationException("Value should be decoded in place");
+    }
+  }
+}
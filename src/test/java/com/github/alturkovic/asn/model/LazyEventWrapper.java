@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.model;
+
+import com.github.alturkovic.asn.Lazy;
+import com.github.alturkovic.asn.annotation.AsnPrimitive;
+import com.github.alturkovic.asn.annotation.AsnStructure;
+import com.github.alturkovic.asn.annotation.AsnTag;
+import com.github.alturkovic.asn.tag.Type;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Same encoding as {@link EventWrapper}, with a lazily decoded event.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@AsnStructure(@AsnTag(value = 16, type = Type.UNIVERSAL))
+public class LazyEventWrapper {
+
+  @AsnPrimitive(@AsnTag(1))
+  private String id;
+
+  @AsnStructure(@AsnTag(2))
+  private Lazy<Event> event;
+}
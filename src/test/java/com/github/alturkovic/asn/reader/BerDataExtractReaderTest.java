@@ -25,6 +25,7 @@
 
 package com.github.alturkovic.asn.reader;
 
+import com.github.alturkovic.asn.exception.AsnReadException;
 import com.github.alturkovic.asn.tag.Tag;
 import com.github.alturkovic.asn.tag.Type;
 import com.github.alturkovic.asn.tag.UniversalTags;
@@ -36,6 +37,7 @@ import java.util.Arrays;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class BerDataExtractReaderTest {
 
@@ -49,4 +51,43 @@ public class BerDataExtractReaderTest {
 
     assertThat(rawData.toTlv()).isEqualTo(HexUtils.decode("020103"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldSkipRecordsWithDifferentTag() {
+    final BerDataExtractReader berDataExtractReader = new BerDataExtractReader(Arrays.asList(
+        new Tag(1, Type.CONTEXT, true),
+        new Tag(UniversalTags.INTEGER, Type.UNIVERSAL, false)
+    ));
+    final var input = new ByteArrayInputStream(HexUtils.decode("A2030201FF" + "A280A2800201FF00000000" + "A106040100020105"));
+
+    assertThat(berDataExtractReader.readNext(input).toTlv()).isEqualTo(HexUtils.decode("020105"));
+    assertThat(input.available()).isZero();
+  }
+
+  @Test
+  public void shouldFailOnMatchingRecordWithoutPath() {
+    final BerDataExtractReader berDataExtractReader = new BerDataExtractReader(Arrays.asList(
+        new Tag(1, Type.CONTEXT, true),
+        new Tag(UniversalTags.INTEGER, Type.UNIVERSAL, false)
+    ));
+
+    assertThatThrownBy(() -> berDataExtractReader.readNext(new ByteArrayInputStream(HexUtils.decode("A103040100" + "A103020105"))))
+        .isInstanceOf(AsnReadException.class);
+  }
+
+  @Test
+  public void shouldFailOnTruncatedSkippedRecord() {
+    final BerDataExtractReader berDataExtractReader = new BerDataExtractReader(Arrays.asList(new Tag(1, Type.CONTEXT, true)));
+
+    assertThatThrownBy(() -> berDataExtractReader.readNext(new ByteArrayInputStream(HexUtils.decode("A2050201FF"))))
+        .isInstanceOf(AsnReadException.class);
+  }
+
+  @Test
+  public void shouldFailOnSkippedRecordNestedTooDeep() {
+    final BerDataExtractReader berDataExtractReader = new BerDataExtractReader(Arrays.asList(new Tag(1, Type.CONTEXT, true)));
+    final var input = new ByteArrayInputStream(HexUtils.decode("A280".repeat(20_000) + "0000".repeat(20_000)));
+
+    assertThatThrownBy(() -> berDataExtractReader.readNext(input)).isInstanceOf(AsnReadException.class);
+  }
+}
@@ -25,9 +25,12 @@
 
 package com.github.alturkovic.asn.reader;
 
+import com.github.alturkovic.asn.exception.AsnParseException;
+import com.github.alturkovic.asn.exception.AsnReadException;
 import com.github.alturkovic.asn.params.HexParam;
 import com.github.alturkovic.asn.tlv.BerData;
 import com.github.alturkovic.asn.tlv.BerDataReader;
+import com.github.alturkovic.asn.util.HexUtils;
 import java.io.ByteArrayInputStream;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
@@ -36,6 +39,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @RunWith(JUnitParamsRunner.class)
 public class BerDataReaderTest {
@@ -56,4 +60,38 @@ public class BerDataReaderTest {
     assertThat(rawData.getLength()).isEqualTo(length);
     assertThat(rawData.getValue()).isEqualTo(value);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldReadIndefiniteLengthWithDefiniteLength() {
+    final BerData rawData = new BerDataReader().readNext(new ByteArrayInputStream(HexUtils.decode("3080" + "800101" + "A180" + "800102" + "0000" + "0000" + "810101")));
+
+    assertThat(rawData.getTag()).isEqualTo(HexUtils.decode("30"));
+    assertThat(rawData.getLength()).isEqualTo(HexUtils.decode("08"));
+    assertThat(rawData.getValue()).isEqualTo(HexUtils.decode("800101A103800102"));
+  }
+
+  @Test
+  public void shouldReadNestedIndefiniteLengthsWithDefiniteLengths() {
+    final BerData rawData = new BerDataReader().readNext(new ByteArrayInputStream(HexUtils.decode(
+        "3080" + "A180" + "A280" + "800101" + "0000" + "810102" + "0000" + "820103" + "0000")));
+
+    assertThat(rawData.getLength()).isEqualTo(HexUtils.decode("0D"));
+    assertThat(rawData.getValue()).isEqualTo(HexUtils.decode("A108A203800101810102820103"));
+  }
+
+  @Test
+  public void shouldFailBecauseIndefiniteLengthsAreNestedTooDeep() {
+    final byte[] given = HexUtils.decode("A180".repeat(20_000) + "0000".repeat(20_000));
+
+    assertThatThrownBy(() -> new BerDataReader().readNext(new ByteArrayInputStream(given))).isInstanceOf(AsnReadException.class);
+  }
+
+  @Test(expected = AsnParseException.class)
+  @Parameters({
+      "8080010100000000", // primitive top-level TLV
+      "3080800101818001010000000000" // primitive nested TLV
+  })
+  public void shouldFailBecausePrimitiveHasIndefiniteLength(@HexParam final byte[] given) {
+    new BerDataReader().readNext(new ByteArrayInputStream(given));
+  }
+}
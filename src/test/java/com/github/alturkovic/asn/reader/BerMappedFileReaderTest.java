@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.reader;
+
+import com.github.alturkovic.asn.decoder.BerDecoder;
+import com.github.alturkovic.asn.decoder.BerRecord;
+import com.github.alturkovic.asn.model.EventA;
+import com.github.alturkovic.asn.model.EventWrapper;
+import com.github.alturkovic.asn.tlv.BerMappedFileReader;
+import com.github.alturkovic.asn.util.HexUtils;
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BerMappedFileReaderTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void shouldReadRecordsAcrossWindows() throws Exception {
+    final File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), HexUtils.decode("8001019F83330895F4c21abbc48daa810322cbdc"));
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      final BerMappedFileReader reader = new BerMappedFileReader(channel, 16);
+
+      assertThat(reader.readNext().toTlv()).isEqualTo(HexUtils.decode("800101"));
+      assertThat(reader.readNext().getValue()).isEqualTo(HexUtils.decode("95F4c21abbc48daa"));
+      assertThat(reader.getRecordOffset()).isEqualTo(3);
+      assertThat(reader.readNext().toTlv()).isEqualTo(HexUtils.decode("810322cbdc"));
+      assertThat(reader.getRecordOffset()).isEqualTo(15);
+      assertThat(reader.readNext()).isNull();
+    }
+  }
+
+  @Test
+  public void shouldSkipAndSeekRecords() throws Exception {
+    final File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), HexUtils.decode("8001019F83330895F4c21abbc48daa810322cbdc"));
+
+    try (BerMappedFileReader reader = new BerMappedFileReader(file.toPath())) {
+      assertThat(reader.skipNext()).isTrue();
+      assertThat(reader.skipNext()).isTrue();
+      assertThat(reader.getRecordOffset()).isEqualTo(3);
+      assertThat(reader.readNext().toTlv()).isEqualTo(HexUtils.decode("810322cbdc"));
+      assertThat(reader.skipNext()).isFalse();
+
+      reader.seek(3);
+      assertThat(reader.readNext().getTag()).isEqualTo(HexUtils.decode("9F8333"));
+    }
+  }
+
+  @Test
+  public void shouldDecodeRecordsWithOffsets() throws Exception {
+    final File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), HexUtils.decode("300D810161A208A106810101820102" + "300D810162A208A2068101FF820102"));
+
+    try (BerMappedFileReader reader = new BerMappedFileReader(file.toPath())) {
+      final List<BerRecord<EventWrapper>> records = new BerDecoder().records(EventWrapper.class, reader).collect(Collectors.toList());
+
+      assertThat(records).extracting(BerRecord::getOffset).containsExactly(0L, 15L);
+      assertThat(records).extracting(BerRecord::getLength).containsExactly(15, 15);
+      assertThat(records.get(1).getValue().getId()).isEqualTo("b");
+    }
+  }
+
+  @Test
+  public void shouldDecodeAllRecordsOfFileInParallel() throws Exception {
+    final File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), HexUtils.decode("300D810161A208A106810101820102" + "3080810162A280A2808101FF820102000000000000" + "300D810161A208A106810103820104"));
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      final List<EventWrapper> decoded = new BerDecoder().decodeAll(EventWrapper.class, channel, ForkJoinPool.commonPool());
+
+      assertThat(decoded).extracting(EventWrapper::getId).containsExactly("a", "b", "a");
+      assertThat(decoded.get(2).getEvent()).isEqualTo(new EventA(3, 4));
+    }
+  }
+
+  @Test
+  public void shouldReadIndefiniteLengthRecords() throws Exception {
+    final File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), HexUtils.decode("3080" + "800101" + "A180" + "800102" + "0000" + "0000" + "810322cbdc"));
+
+    try (BerMappedFileReader reader = new BerMappedFileReader(file.toPath())) {
+      assertThat(reader.readNext().getValue()).isEqualTo(HexUtils.decode("800101A1808001020000"));
+      assertThat(reader.readNext().toTlv()).isEqualTo(HexUtils.decode("810322cbdc"));
+      assertThat(reader.getRecordOffset()).isEqualTo(14);
+    }
+  }
+}
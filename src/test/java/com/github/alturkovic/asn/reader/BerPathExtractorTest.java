@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.reader;
+
+import com.github.alturkovic.asn.tag.Tag;
+import com.github.alturkovic.asn.tag.Type;
+import com.github.alturkovic.asn.tag.UniversalTags;
+import com.github.alturkovic.asn.tlv.BerPathExtractor;
+import com.github.alturkovic.asn.tlv.BerSlice;
+import com.github.alturkovic.asn.util.HexUtils;
+import java.util.List;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BerPathExtractorTest {
+
+  private static final Tag PERSON = new Tag(16, Type.PRIVATE, true);
+  private static final byte[] PERSON_DATA = HexUtils.decode("F03C0101FF020118311004063859980690030406385998069002A11FA20D040546697273740201018201FFA20E04065365636F6E64020102820100830128");
+
+  @Test
+  public void shouldExtractMultiplePathsInOnePass() {
+    final var extractor = new BerPathExtractor(List.of(
+        List.of(PERSON, new Tag(1, Type.CONTEXT, true), new Tag(2, Type.CONTEXT, true), new Tag(UniversalTags.INTEGER, Type.UNIVERSAL, false)),
+        List.of(PERSON, new Tag(3, Type.CONTEXT, false)),
+        List.of(PERSON, new Tag(9, Type.CONTEXT, false)),
+        List.of(PERSON, new Tag(UniversalTags.SET, Type.UNIVERSAL, true))
+    ));
+
+    final BerSlice[] extracted = extractor.extract(PERSON_DATA, 0, PERSON_DATA.length);
+
+    assertThat(extracted[0].toTlv()).isEqualTo(HexUtils.decode("020101"));
+    assertThat(extracted[1].toTlv()).isEqualTo(HexUtils.decode("830128"));
+    assertThat(extracted[2]).isNull();
+    assertThat(extracted[3].getValueLength()).isEqualTo(16);
+  }
+
+  @Test
+  public void shouldIgnoreConstructedBitOfPathTags() {
+    final var extractor = BerPathExtractor.of(List.of(new Tag(16, Type.PRIVATE, false), new Tag(3, Type.CONTEXT, true)));
+
+    assertThat(extractor.extract(PERSON_DATA, 0, PERSON_DATA.length)[0].toTlv()).isEqualTo(HexUtils.decode("830128"));
+  }
+
+  @Test
+  public void shouldMatchMultiByteTagsAndSkipLongSiblings() {
+    final var longSibling = "9F20" + "8181" + "00".repeat(129);
+    final var data = HexUtils.decode("308189" + longSibling + "9F1F0105" + "30049F1F0107");
+    final var extractor = BerPathExtractor.of(List.of(new Tag(16, Type.UNIVERSAL, true), new Tag(31, Type.CONTEXT, false)));
+
+    final var extracted = extractor.extract(data, 0, data.length)[0];
+
+    assertThat(extracted.getOffset()).isEqualTo(3 + 133);
+    assertThat(extracted.getValue()).isEqualTo(new byte[]{5});
+  }
+
+  @Test
+  public void shouldSearchConsecutiveRecordsUntilFound() {
+    final var data = HexUtils.decode("3003810101" + "3003820102" + "3003820103");
+    final var extractor = BerPathExtractor.of(List.of(new Tag(16, Type.UNIVERSAL, true), new Tag(2, Type.CONTEXT, false)));
+
+    assertThat(extractor.extract(data, 0, data.length)[0].getValue()).isEqualTo(new byte[]{2});
+    assertThat(extractor.extract(data, 10, data.length)[0].getValue()).isEqualTo(new byte[]{3});
+  }
+
+  @Test
+  public void shouldExtractFromIndefiniteLength() {
+    final byte[] data = HexUtils.decode("3080" + "A180" + "800102" + "0000" + "820101" + "0000");
+    final var extractor = new BerPathExtractor(List.of(
+        List.of(new Tag(16, Type.UNIVERSAL, true), new Tag(1, Type.CONTEXT, true), new Tag(0, Type.CONTEXT, false)),
+        List.of(new Tag(16, Type.UNIVERSAL, true), new Tag(2, Type.CONTEXT, false))
+    ));
+
+    final BerSlice[] extracted = extractor.extract(data, 0, data.length);
+
+    assertThat(extracted[0].toTlv()).isEqualTo(HexUtils.decode("800102"));
+    assertThat(extracted[1].toTlv()).isEqualTo(HexUtils.decode("820101"));
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.reader;
+
+import com.github.alturkovic.asn.exception.AsnReadException;
+import com.github.alturkovic.asn.params.HexParam;
+import com.github.alturkovic.asn.tlv.BerDataReader;
+import com.github.alturkovic.asn.tlv.BerSlice;
+import com.github.alturkovic.asn.tlv.BerSliceReader;
+import com.github.alturkovic.asn.util.HexUtils;
+import java.nio.ByteBuffer;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import junitparams.naming.TestCaseName;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(JUnitParamsRunner.class)
+public class BerSliceReaderTest {
+
+  private final BerSliceReader reader = new BerSliceReader();
+
+  @Test
+  @Parameters({
+      "800101b182, 80, 01, 01", // b182 is from the next TLV
+      "810322cbdc, 81, 03, 22cbdc",
+      "810322cbdcF02c, 81, 03, 22cbdc", // F02c is from the next TLV
+      "9F83330895F4c21abbc48daa, 9F8333, 08, 95F4c21abbc48daa",
+      "5f250c8002abcd8103def01202010c, 5f25, 0c, 8002abcd8103def01202010c"
+  })
+  @TestCaseName("[{index}] read: ({0})")
+  public void shouldRead(@HexParam final byte[] given, @HexParam final byte[] tag, @HexParam final byte[] length, @HexParam final byte[] value) {
+    final BerSlice slice = reader.readNext(given);
+
+    assertThat(slice.getBuffer()).isSameAs(given);
+    assertThat(slice.getTag()).isEqualTo(tag);
+    assertThat(slice.getLength()).isEqualTo(length);
+    assertThat(slice.getValue()).isEqualTo(value);
+  }
+
+  @Test
+  public void shouldReadLongFormLength() {
+    final byte[] data = new byte[4 + 300];
+    data[0] = 0x04;
+    data[1] = (byte) 0x82;
+    data[2] = 0x01;
+    data[3] = 0x2C;
+
+    final BerSlice slice = reader.readNext(data, 0, data.length);
+
+    assertThat(slice.getLengthLength()).isEqualTo(3);
+    assertThat(slice.getValueLength()).isEqualTo(300);
+    assertThat(slice.getEnd()).isEqualTo(304);
+  }
+
+  @Test
+  public void shouldReadConsecutiveSlices() {
+    final byte[] data = HexUtils.decode("800101810322cbdc");
+
+    final BerSlice first = reader.readNext(data, 0, data.length);
+    final BerSlice second = reader.readNext(data, first.getEnd(), data.length);
+
+    assertThat(first.toTlv()).isEqualTo(HexUtils.decode("800101"));
+    assertThat(second.getOffset()).isEqualTo(3);
+    assertThat(second.getValueOffset()).isEqualTo(5);
+    assertThat(second.getEnd()).isEqualTo(data.length);
+    assertThat(second.toTlv()).isEqualTo(HexUtils.decode("810322cbdc"));
+  }
+
+  @Test
+  public void shouldReadFromHeapAndDirectByteBuffers() {
+    final byte[] data = HexUtils.decode("800101810322cbdc");
+
+    final ByteBuffer heap = ByteBuffer.wrap(data);
+    heap.position(3);
+    assertThat(reader.readNext(heap).getValue()).isEqualTo(HexUtils.decode("22cbdc"));
+    assertThat(heap.hasRemaining()).isFalse();
+
+    final ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+    assertThat(reader.readNext(direct).getValue()).isEqualTo(HexUtils.decode("01"));
+    assertThat(reader.readNext(direct).getValue()).isEqualTo(HexUtils.decode("22cbdc"));
+    assertThat(direct.hasRemaining()).isFalse();
+  }
+
+  @Parameters({"8105aabb", "9F83", "81820001"})
+  @Test(expected = AsnReadException.class)
+  public void shouldFailBecauseDataIsTruncated(@HexParam final byte[] data) {
+    reader.readNext(data);
+  }
+
+  @Test
+  public void shouldSkipTlvAndReadTagLength() {
+    final byte[] data = HexUtils.decode("9F1F0105810322cbdc");
+
+    assertThat(reader.readTagLength(data, 0, data.length)).isEqualTo(2);
+    assertThat(reader.skip(data, 0, data.length)).isEqualTo(4);
+    assertThat(reader.skip(data, 4, data.length)).isEqualTo(data.length);
+  }
+
+  @Test(expected = AsnReadException.class)
+  public void shouldFailToSkipTruncatedTlv() {
+    final byte[] data = HexUtils.decode("810322cb");
+    reader.skip(data, 0, data.length);
+  }
+
+  @Test
+  public void shouldReadIndefiniteLength() {
+    final byte[] data = HexUtils.decode("3080" + "800101" + "A180" + "800102" + "0000" + "0000" + "810101");
+
+    final BerSlice slice = reader.readNext(data, 0, data.length);
+
+    assertThat(slice.isIndefinite()).isTrue();
+    assertThat(slice.getValue()).isEqualTo(HexUtils.decode("800101A1808001020000"));
+    assertThat(slice.getValueEnd()).isEqualTo(12);
+    assertThat(slice.getEnd()).isEqualTo(14);
+    assertThat(slice.getTotalLength()).isEqualTo(14);
+    assertThat(reader.skip(data, 0, data.length)).isEqualTo(14);
+    assertThat(reader.readTotalLength(data, 0, data.length)).isEqualTo(14);
+    assertThat(slice.toBerData().toTlv()).isEqualTo(HexUtils.decode("300A800101A1808001020000"));
+  }
+
+  @Test
+  public void shouldReadIndefiniteLengthFromDirectByteBuffer() {
+    final byte[] data = HexUtils.decode("3080" + "800101" + "A180" + "800102" + "0000" + "0000");
+
+    final ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+
+    assertThat(reader.readNext(direct).toTlv()).isEqualTo(data);
+    assertThat(direct.hasRemaining()).isFalse();
+  }
+
+  @Test(expected = AsnReadException.class)
+  public void shouldFailBecausePrimitiveHasIndefiniteLength() {
+    reader.readNext(HexUtils.decode("8080010000"));
+  }
+
+  @Test(expected = AsnReadException.class)
+  public void shouldFailBecauseEndOfContentsIsMissing() {
+    reader.readNext(HexUtils.decode("3080800101"));
+  }
+
+  @Test
+  public void shouldReadNestedIndefiniteLengthsInsideParent() {
+    final byte[] data = HexUtils.decode("3080" + "A180" + "A280" + "800101" + "0000" + "0000" + "810102" + "0000");
+
+    final BerSlice record = reader.readNext(data, 0, data.length);
+    final BerSlice first = reader.readNext(record, record.getValueOffset());
+    final BerSlice nested = reader.readNext(first, first.getValueOffset());
+
+    assertThat(first.getValue()).isEqualTo(HexUtils.decode("A2808001010000"));
+    assertThat(nested.getValue()).isEqualTo(HexUtils.decode("800101"));
+    assertThat(reader.skip(record, record.getValueOffset())).isEqualTo(first.getEnd());
+    assertThat(reader.readNext(record, first.getEnd()).getValue()).isEqualTo(HexUtils.decode("02"));
+  }
+
+  @Test
+  public void shouldReadIndefiniteLengthsUpToMaximumDepth() {
+    final BerSliceReader shallowReader = new BerSliceReader(new BerDataReader(), 2);
+    final byte[] data = HexUtils.decode("3080" + "A180" + "800101" + "0000" + "0000");
+
+    assertThat(shallowReader.readNext(data).getTotalLength()).isEqualTo(data.length);
+    assertThat(shallowReader.readNext(ByteBuffer.allocateDirect(data.length).put(data).flip()).getTotalLength()).isEqualTo(data.length);
+  }
+
+  @Test(expected = AsnReadException.class)
+  public void shouldFailBecauseIndefiniteLengthsAreNestedDeeperThanConfigured() {
+    new BerSliceReader(new BerDataReader(), 2).readNext(HexUtils.decode("3080" + "A180" + "A280" + "0000" + "0000" + "0000"));
+  }
+
+  @Test
+  public void shouldFailBecauseIndefiniteLengthsAreNestedTooDeep() {
+    final byte[] data = hostileNesting();
+
+    assertThatThrownBy(() -> reader.readNext(data)).isInstanceOf(AsnReadException.class);
+    assertThatThrownBy(() -> reader.skip(data, 0, data.length)).isInstanceOf(AsnReadException.class);
+    assertThatThrownBy(() -> reader.readNext(ByteBuffer.allocateDirect(data.length).put(data).flip())).isInstanceOf(AsnReadException.class);
+  }
+
+  // 20000 nested constructed TLVs with an indefinite length
+  private static byte[] hostileNesting() {
+    return HexUtils.decode("A180".repeat(20_000) + "0000".repeat(20_000));
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.reader;
+
+import com.github.alturkovic.asn.exception.AsnReadException;
+import com.github.alturkovic.asn.tlv.BerSlice;
+import com.github.alturkovic.asn.tlv.BerStreamReader;
+import com.github.alturkovic.asn.util.HexUtils;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BerStreamReaderTest {
+
+  @Test
+  public void shouldReadConsecutiveRecords() {
+    final BerStreamReader reader = new BerStreamReader(new ByteArrayInputStream(HexUtils.decode("8001019F83330895F4c21abbc48daa810322cbdc")));
+
+    assertThat(reader.readNext().toTlv()).isEqualTo(HexUtils.decode("800101"));
+    assertThat(reader.getRecordOffset()).isEqualTo(0);
+
+    final BerSlice second = reader.readNext();
+    assertThat(second.getTag()).isEqualTo(HexUtils.decode("9F8333"));
+    assertThat(second.getValue()).isEqualTo(HexUtils.decode("95F4c21abbc48daa"));
+    assertThat(reader.getRecordOffset()).isEqualTo(3);
+
+    assertThat(reader.readNext().toTlv()).isEqualTo(HexUtils.decode("810322cbdc"));
+    assertThat(reader.getRecordOffset()).isEqualTo(15);
+
+    assertThat(reader.readNext()).isNull();
+  }
+
+  @Test
+  public void shouldReadRecordsLargerThanBufferFromSlowStream() {
+    final byte[] value = new byte[1000];
+    final byte[] data = new byte[2 * (value.length + 4)];
+    for (int i = 0; i < 2; i++) {
+      final int offset = i * (value.length + 4);
+      data[offset] = 0x04;
+      data[offset + 1] = (byte) 0x82;
+      data[offset + 2] = 0x03;
+      data[offset + 3] = (byte) 0xE8;
+      value[i] = (byte) (i + 1);
+      System.arraycopy(value, 0, data, offset + 4, value.length);
+    }
+
+    final BerStreamReader reader = new BerStreamReader(new OneByteInputStream(new ByteArrayInputStream(data)), 16);
+
+    assertThat(reader.readNext().getValueLength()).isEqualTo(1000);
+    final BerSlice second = reader.readNext();
+    assertThat(second.getValue()).isEqualTo(value);
+    assertThat(reader.getRecordOffset()).isEqualTo(1004);
+    assertThat(reader.readNext()).isNull();
+  }
+
+  @Test
+  public void shouldSkipRecordsLargerThanBuffer() {
+    final byte[] data = new byte[1004 + 3];
+    data[0] = 0x04;
+    data[1] = (byte) 0x82;
+    data[2] = 0x03;
+    data[3] = (byte) 0xE8;
+    data[1004] = (byte) 0x80;
+    data[1005] = 0x01;
+    data[1006] = 0x07;
+
+    final BerStreamReader reader = new BerStreamReader(new OneByteInputStream(new ByteArrayInputStream(data)), 16);
+
+    assertThat(reader.skipNext()).isTrue();
+    assertThat(reader.readNext().getValue()).isEqualTo(new byte[]{7});
+    assertThat(reader.getRecordOffset()).isEqualTo(1004);
+  }
+
+  @Test
+  public void shouldSkipRecords() {
+    final BerStreamReader reader = new BerStreamReader(new ByteArrayInputStream(HexUtils.decode("8001019F83330895F4c21abbc48daa810322cbdc")), 16);
+
+    assertThat(reader.skipNext()).isTrue();
+    assertThat(reader.skipNext()).isTrue();
+    assertThat(reader.getRecordOffset()).isEqualTo(3);
+    assertThat(reader.readNext().toTlv()).isEqualTo(HexUtils.decode("810322cbdc"));
+    assertThat(reader.getRecordOffset()).isEqualTo(15);
+    assertThat(reader.skipNext()).isFalse();
+  }
+
+  @Test(expected = AsnReadException.class)
+  public void shouldFailBecauseRecordIsTruncated() {
+    final BerStreamReader reader = new BerStreamReader(new ByteArrayInputStream(HexUtils.decode("800101810322cb")));
+    reader.readNext();
+    reader.readNext();
+  }
+
+  @Test
+  public void shouldReadIndefiniteLengthRecordsFromSlowStream() {
+    final byte[] data = HexUtils.decode("3080" + "800101" + "A180" + "800102" + "0000" + "0000" + "810322cbdc" + "3080" + "800101" + "A180" + "800102" + "0000" + "0000");
+    final BerStreamReader reader = new BerStreamReader(new OneByteInputStream(new ByteArrayInputStream(data)), 16);
+
+    assertThat(reader.readNext().toTlv()).isEqualTo(HexUtils.decode("3080" + "800101" + "A180" + "800102" + "0000" + "0000"));
+    assertThat(reader.readNext().toTlv()).isEqualTo(HexUtils.decode("810322cbdc"));
+    assertThat(reader.skipNext()).isTrue();
+    assertThat(reader.getRecordOffset()).isEqualTo(19);
+    assertThat(reader.readNext()).isNull();
+  }
+
+  @Test(expected = AsnReadException.class)
+  public void shouldFailBecauseIndefiniteLengthRecordIsTruncated() {
+    new BerStreamReader(new ByteArrayInputStream(HexUtils.decode("3080800101"))).readNext();
+  }
+
+  @Test(expected = AsnReadException.class)
+  public void shouldFailBecauseNestedLengthsOverflowIndefiniteLengthRecord() {
+    new BerStreamReader(new ByteArrayInputStream(HexUtils.decode("3080" + "0484FFFFFFF0" + "0484FFFFFFF0"))).readNext();
+  }
+
+  @Test(expected = AsnReadException.class)
+  public void shouldFailBecauseIndefiniteLengthsAreNestedTooDeep() {
+    new BerStreamReader(new ByteArrayInputStream(HexUtils.decode("A180".repeat(20_000) + "0000".repeat(20_000)))).readNext();
+  }
+
+  private static class OneByteInputStream extends FilterInputStream {
+
+    private OneByteInputStream(final InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      return super.read(b, off, Math.min(len, 1));
+    }
+  }
+}
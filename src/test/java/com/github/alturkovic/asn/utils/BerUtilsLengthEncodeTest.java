@@ -25,6 +25,7 @@
 
 package com.github.alturkovic.asn.utils;
 
+import com.github.alturkovic.asn.exception.AsnParseException;
 import com.github.alturkovic.asn.params.HexParam;
 import com.github.alturkovic.asn.util.BerUtils;
 import junitparams.JUnitParamsRunner;
@@ -47,4 +48,35 @@ public class BerUtilsLengthEncodeTest {
   public void shouldEncodeLength(final int length, @HexParam final byte[] expected) throws Exception {
     assertThat(BerUtils.encodeLength(length)).isEqualTo(expected);
   }
+
+  @Test
+  @Parameters({
+      "2, 1",
+      "127, 1",
+      "128, 2",
+      "65535, 3",
+      "2585978, 4",
+      "2147483647, 5"
+  })
+  public void shouldCountLengthOctets(final int length, final int expected) throws Exception {
+    assertThat(BerUtils.lengthOctets(length)).isEqualTo(expected);
+  }
+
+  @Test
+  @Parameters({
+      "154, AA819A",
+      "2147483647, AA847FFFFFFF"
+  })
+  public void shouldWriteLengthIntoBuffer(final int length, @HexParam final byte[] expected) throws Exception {
+    final var out = new byte[expected.length];
+    out[0] = (byte) 0xAA;
+
+    assertThat(BerUtils.writeLength(out, 1, length)).isEqualTo(expected.length);
+    assertThat(out).isEqualTo(expected);
+  }
+
+  @Test(expected = AsnParseException.class)
+  public void shouldFailForNegativeLength() throws Exception {
+    BerUtils.encodeLength(-1);
+  }
 }
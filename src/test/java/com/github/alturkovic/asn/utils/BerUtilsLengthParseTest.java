@@ -74,4 +74,19 @@ public class BerUtilsLengthParseTest {
   public void shouldFailBecauseByteArrayLengthIsNotAsDescribedInFirstByte(@HexParam final byte[] data) throws Exception {
     BerUtils.parseLength(data);
   }
-}
\ No newline at end of file
+
+  @Test
+  @Parameters({
+      "AA820254BB, 1, 3, 596",
+      "AA7FBB, 1, 1, 127"
+  })
+  public void shouldParseLengthInPlace(@HexParam final byte[] buffer, final int offset, final int length, final int expected) throws Exception {
+    assertThat(BerUtils.parseLength(buffer, offset, length)).isEqualTo(expected);
+  }
+
+  @Parameters("8480000000")
+  @Test(expected = AsnParseException.class)
+  public void shouldFailBecauseLengthIsTooLarge(@HexParam final byte[] data) throws Exception {
+    BerUtils.parseLength(data);
+  }
+}
@@ -30,6 +30,7 @@ import com.github.alturkovic.asn.params.HexParam;
 import com.github.alturkovic.asn.tag.Tag;
 import com.github.alturkovic.asn.tag.Type;
 import com.github.alturkovic.asn.util.BerUtils;
+import com.github.alturkovic.asn.util.HexUtils;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
 import junitparams.naming.TestCaseName;
@@ -100,6 +101,18 @@ public class BerUtilsTagParseTest {
     BerUtils.parseTag(data);
   }
 
+  @Parameters({"1F8FFFFFFF7F", "1F908080808000"})
+  @Test(expected = AsnParseException.class)
+  public void shouldFailBecauseTagNumberOverflows(@HexParam final byte[] data) throws Exception {
+    BerUtils.parseTag(data);
+  }
+
+  @Test
+  public void shouldParseLargestTagNumber() throws Exception {
+    assertThat(BerUtils.parseTag(HexUtils.decode("DF87FFFFFF7F"))).isEqualTo(new Tag(Integer.MAX_VALUE, Type.PRIVATE, false));
+    assertThat(BerUtils.parsePackedTag(HexUtils.decode("DF87FFFFFF7F"), 0, 6)).isEqualTo(0x37FFFFFFFL);
+  }
+
   @SuppressWarnings("unused") // used by shouldParse method @Parameters
   private Object parametersForShouldParse() {
     return new Object[][]{
@@ -114,4 +127,35 @@ public class BerUtilsTagParseTest {
         {"9f818333", new Tag(16819, Type.CONTEXT, false)}
     };
   }
-}
\ No newline at end of file
+
+  @Test
+  @Parameters({
+      "AA9f818333BB, 1, 4, 16819",
+      "AA83BB, 1, 1, 3"
+  })
+  public void shouldParseTagInPlace(@HexParam final byte[] buffer, final int offset, final int length, final int expected) throws Exception {
+    assertThat(BerUtils.parseTag(buffer, offset, length).getValue()).isEqualTo(expected);
+  }
+
+  @Test
+  @Parameters({
+      "AABF25BB, 1, 2, 37, CONTEXT",
+      "AA9F25BB, 1, 2, 37, CONTEXT",
+      "AA7f8163BB, 1, 3, 227, APPLICATION"
+  })
+  public void shouldParsePackedTagIgnoringConstructedBit(@HexParam final byte[] buffer, final int offset, final int length, final int value, final Type type) throws Exception {
+    assertThat(BerUtils.parsePackedTag(buffer, offset, length)).isEqualTo(BerUtils.packTag(new Tag(value, type, false)));
+    assertThat(BerUtils.parsePackedTag(buffer, offset, length)).isEqualTo(BerUtils.packTag(new Tag(value, type, true)));
+  }
+
+  @Test
+  public void shouldPackDifferentTypesDifferently() throws Exception {
+    assertThat(BerUtils.packTag(new Tag(1, Type.CONTEXT, false))).isNotEqualTo(BerUtils.packTag(new Tag(1, Type.APPLICATION, false)));
+  }
+
+  @Test
+  public void shouldNotSignExtendTagNumberOverClassBits() throws Exception {
+    assertThat(BerUtils.packTag(new Tag(-1, Type.UNIVERSAL, false))).isEqualTo(0xFFFFFFFFL);
+    assertThat(BerUtils.packTag(new Tag(-1, Type.CONTEXT, false))).isNotEqualTo(BerUtils.packTag(new Tag(-1, Type.PRIVATE, false)));
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.utils;
+
+import com.github.alturkovic.asn.params.HexParam;
+import com.github.alturkovic.asn.util.IntegerUtils;
+import java.math.BigInteger;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(JUnitParamsRunner.class)
+public class IntegerUtilsTest {
+
+  @Test
+  @Parameters({
+      "0",
+      "1",
+      "-1",
+      "127",
+      "128",
+      "-128",
+      "-129",
+      "32767",
+      "-32768",
+      "8388607",
+      "-8388609",
+      "2147483647",
+      "-2147483648",
+      "549755813888",
+      "9223372036854775807",
+      "-9223372036854775808"
+  })
+  public void shouldEncodeLikeBigInteger(final long value) throws Exception {
+    final var expected = BigInteger.valueOf(value).toByteArray();
+
+    assertThat(IntegerUtils.encodedLength(value)).isEqualTo(expected.length);
+    assertThat(IntegerUtils.encode(value)).isEqualTo(expected);
+    assertThat(IntegerUtils.parseLong(expected, 0, expected.length)).isEqualTo(value);
+  }
+
+  @Test
+  @Parameters({
+      "AA00FF7F, 1, 2, 255",
+      "AAFFFF80, 1, 3, -128",
+      "00000000000000000001, 0, 10, 1",
+      "FFFFFFFFFFFFFFFFFFFF, 0, 10, -1"
+  })
+  public void shouldParseWithinBounds(@HexParam final byte[] data, final int offset, final int length, final long expected) throws Exception {
+    assertThat(IntegerUtils.parseLong(data, offset, length)).isEqualTo(expected);
+  }
+
+  @Test
+  @Parameters({
+      "008000000000000000",
+      "FF7FFFFFFFFFFFFFFF"
+  })
+  public void shouldFailBecauseLongOverflow(@HexParam final byte[] data) throws Exception {
+    assertThatThrownBy(() -> IntegerUtils.parseLong(data, 0, data.length)).isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  public void shouldFailBecauseOutOfRange() throws Exception {
+    final var data = new byte[]{0, (byte) 0x80, 0};
+
+    assertThat(IntegerUtils.parseInt(data, 0, 3)).isEqualTo(32768);
+    assertThatThrownBy(() -> IntegerUtils.parseShort(data, 0, 3)).isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> IntegerUtils.parseLong(data, 0, 0)).isInstanceOf(ArithmeticException.class);
+  }
+}
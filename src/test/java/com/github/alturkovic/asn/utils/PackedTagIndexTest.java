@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.github.alturkovic.asn.utils;
+
+import com.github.alturkovic.asn.exception.AsnConfigurationException;
+import com.github.alturkovic.asn.util.PackedTagIndex;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PackedTagIndexTest {
+
+  @Test
+  public void shouldFindIndexedTags() {
+    final var packedTags = new long[100];
+    for (var i = 0; i < packedTags.length; i++) {
+      packedTags[i] = (2L << 32) | (i * 3);
+    }
+
+    final var index = new PackedTagIndex(packedTags);
+
+    for (var i = 0; i < packedTags.length; i++) {
+      assertThat(index.indexOf(packedTags[i])).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void shouldNotFindMissingTags() {
+    final var index = new PackedTagIndex(new long[]{1, 2, 3});
+
+    assertThat(index.indexOf(4)).isEqualTo(-1);
+    assertThat(new PackedTagIndex(new long[0]).indexOf(1)).isEqualTo(-1);
+  }
+
+  @Test(expected = AsnConfigurationException.class)
+  public void shouldFailForDuplicateTags() {
+    new PackedTagIndex(new long[]{1, 2, 1});
+  }
+}